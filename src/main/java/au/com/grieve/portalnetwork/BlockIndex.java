@@ -0,0 +1,199 @@
+/*
+ * PortalNetwork - Portals for Players
+ * Copyright (C) 2026 PortalNetwork Developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package au.com.grieve.portalnetwork;
+
+import au.com.grieve.portalnetwork.portals.Portal;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// Open addressing map of packed block coordinates to the portals that own them. Each slot holds
+// one owner per role so a block can be the frame of one portal and the base of another.
+public class BlockIndex {
+  public enum Role {
+    FRAME,
+    PORTAL,
+    BASE,
+    BLOCK
+  }
+
+  private static final Role[] ROLES = Role.values();
+  private static final int MIN_CAPACITY = 64;
+
+  private long[] keys;
+  private Portal[][] owners;
+  private byte[] roles;
+  private int size;
+
+  public BlockIndex() {
+    this.allocate(MIN_CAPACITY);
+  }
+
+  // Pack block coordinates into a long. 26 bits for x and z and 12 bits for y.
+  public static long key(int x, int y, int z) {
+    return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+  }
+
+  public static int keyX(long key) {
+    return (int) (key >> 38);
+  }
+
+  public static int keyY(long key) {
+    return (int) (key << 52 >> 52);
+  }
+
+  public static int keyZ(long key) {
+    return (int) (key << 26 >> 38);
+  }
+
+  private static int hash(long key) {
+    key ^= key >>> 33;
+    key *= 0xff51afd7ed558ccdL;
+    key ^= key >>> 33;
+    key *= 0xc4ceb9fe1a85ec53L;
+    key ^= key >>> 33;
+    return (int) key;
+  }
+
+  private void allocate(int capacity) {
+    this.keys = new long[capacity];
+    this.owners = new Portal[ROLES.length][capacity];
+    this.roles = new byte[capacity];
+  }
+
+  private int slot(long key) {
+    int mask = this.keys.length - 1;
+    int idx = hash(key) & mask;
+    while (this.roles[idx] != 0) {
+      if (this.keys[idx] == key) {
+        return idx;
+      }
+      idx = (idx + 1) & mask;
+    }
+    return -1;
+  }
+
+  public void put(long key, @NotNull Role role, @NotNull Portal portal) {
+    if ((this.size + 1) * 4 > this.keys.length * 3) {
+      this.resize(this.keys.length * 2);
+    }
+
+    int mask = this.keys.length - 1;
+    int idx = hash(key) & mask;
+    while (this.roles[idx] != 0) {
+      if (this.keys[idx] == key) {
+        break;
+      }
+      idx = (idx + 1) & mask;
+    }
+
+    if (this.roles[idx] == 0) {
+      this.keys[idx] = key;
+      this.size++;
+    }
+    this.owners[role.ordinal()][idx] = portal;
+    this.roles[idx] |= (byte) (1 << role.ordinal());
+  }
+
+  // Remove role from key but only if it is still owned by portal
+  public void remove(long key, @NotNull Role role, @NotNull Portal portal) {
+    int idx = this.slot(key);
+    if (idx == -1 || this.owners[role.ordinal()][idx] != portal) {
+      return;
+    }
+
+    this.owners[role.ordinal()][idx] = null;
+    this.roles[idx] &= (byte) ~(1 << role.ordinal());
+    if (this.roles[idx] == 0) {
+      this.delete(idx);
+    }
+  }
+
+  public @Nullable Portal get(long key, @NotNull Role role) {
+    int idx = this.slot(key);
+    if (idx == -1) {
+      return null;
+    }
+    return this.owners[role.ordinal()][idx];
+  }
+
+  // Return the owner of key as a frame, portal or base in that order
+  public @Nullable Portal get(long key) {
+    int idx = this.slot(key);
+    if (idx == -1) {
+      return null;
+    }
+
+    for (int role = Role.FRAME.ordinal(); role <= Role.BASE.ordinal(); role++) {
+      if (this.owners[role][idx] != null) {
+        return this.owners[role][idx];
+      }
+    }
+    return null;
+  }
+
+  // Backward shift deletion so probe chains stay intact without tombstones
+  private void delete(int idx) {
+    int mask = this.keys.length - 1;
+    int hole = idx;
+    int next = (hole + 1) & mask;
+    while (this.roles[next] != 0) {
+      int home = hash(this.keys[next]) & mask;
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        this.keys[hole] = this.keys[next];
+        this.roles[hole] = this.roles[next];
+        for (Portal[] owner : this.owners) {
+          owner[hole] = owner[next];
+        }
+        hole = next;
+      }
+      next = (next + 1) & mask;
+    }
+
+    this.roles[hole] = 0;
+    for (Portal[] owner : this.owners) {
+      owner[hole] = null;
+    }
+    this.size--;
+  }
+
+  private void resize(int capacity) {
+    long[] oldKeys = this.keys;
+    Portal[][] oldOwners = this.owners;
+    byte[] oldRoles = this.roles;
+
+    this.allocate(capacity);
+    int mask = capacity - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldRoles[i] == 0) {
+        continue;
+      }
+
+      int idx = hash(oldKeys[i]) & mask;
+      while (this.roles[idx] != 0) {
+        idx = (idx + 1) & mask;
+      }
+
+      this.keys[idx] = oldKeys[i];
+      this.roles[idx] = oldRoles[i];
+      for (int role = 0; role < ROLES.length; role++) {
+        this.owners[role][idx] = oldOwners[role][i];
+      }
+    }
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * PortalNetwork - Portals for Players
+ * Copyright (C) 2026 PortalNetwork Developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package au.com.grieve.portalnetwork;
+
+import au.com.grieve.portalnetwork.portals.Portal;
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// Open addressing map of packed chunk keys to the portals whose bounds touch the chunk. Buckets
+// are replaced rather than modified so they can be iterated while portals are reindexed.
+public class ChunkIndex {
+  private static final int MIN_CAPACITY = 16;
+
+  private long[] keys = new long[MIN_CAPACITY];
+  private Portal[][] buckets = new Portal[MIN_CAPACITY][];
+  private int size;
+
+  // Pack chunk coordinates the same way as Chunk.getChunkKey()
+  public static long key(int chunkX, int chunkZ) {
+    return (chunkX & 0xFFFFFFFFL) | ((chunkZ & 0xFFFFFFFFL) << 32);
+  }
+
+  public static long keyForBlock(int blockX, int blockZ) {
+    return key(blockX >> 4, blockZ >> 4);
+  }
+
+  private static int hash(long key) {
+    key ^= key >>> 33;
+    key *= 0xff51afd7ed558ccdL;
+    key ^= key >>> 33;
+    return (int) key;
+  }
+
+  private int slot(long key) {
+    int mask = this.keys.length - 1;
+    int idx = hash(key) & mask;
+    while (this.buckets[idx] != null) {
+      if (this.keys[idx] == key) {
+        return idx;
+      }
+      idx = (idx + 1) & mask;
+    }
+    return -1;
+  }
+
+  public boolean contains(long key) {
+    return this.slot(key) != -1;
+  }
+
+  // Return portals touching chunk or null if there are none
+  public @Nullable Portal[] get(long key) {
+    int idx = this.slot(key);
+    return idx == -1 ? null : this.buckets[idx];
+  }
+
+  public void add(long key, @NotNull Portal portal) {
+    if ((this.size + 1) * 4 > this.keys.length * 3) {
+      this.resize(this.keys.length * 2);
+    }
+
+    int mask = this.keys.length - 1;
+    int idx = hash(key) & mask;
+    while (this.buckets[idx] != null) {
+      if (this.keys[idx] == key) {
+        Portal[] bucket = Arrays.copyOf(this.buckets[idx], this.buckets[idx].length + 1);
+        bucket[bucket.length - 1] = portal;
+        this.buckets[idx] = bucket;
+        return;
+      }
+      idx = (idx + 1) & mask;
+    }
+
+    this.keys[idx] = key;
+    this.buckets[idx] = new Portal[] {portal};
+    this.size++;
+  }
+
+  public void remove(long key, @NotNull Portal portal) {
+    int idx = this.slot(key);
+    if (idx == -1) {
+      return;
+    }
+
+    Portal[] bucket = this.buckets[idx];
+    int pos = -1;
+    for (int i = 0; i < bucket.length; i++) {
+      if (bucket[i] == portal) {
+        pos = i;
+        break;
+      }
+    }
+
+    if (pos == -1) {
+      return;
+    }
+
+    if (bucket.length > 1) {
+      Portal[] newBucket = new Portal[bucket.length - 1];
+      System.arraycopy(bucket, 0, newBucket, 0, pos);
+      System.arraycopy(bucket, pos + 1, newBucket, pos, bucket.length - pos - 1);
+      this.buckets[idx] = newBucket;
+      return;
+    }
+
+    // Backward shift deletion
+    int mask = this.keys.length - 1;
+    int hole = idx;
+    int next = (hole + 1) & mask;
+    while (this.buckets[next] != null) {
+      int home = hash(this.keys[next]) & mask;
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        this.keys[hole] = this.keys[next];
+        this.buckets[hole] = this.buckets[next];
+        hole = next;
+      }
+      next = (next + 1) & mask;
+    }
+    this.buckets[hole] = null;
+    this.size--;
+  }
+
+  private void resize(int capacity) {
+    long[] oldKeys = this.keys;
+    Portal[][] oldBuckets = this.buckets;
+
+    this.keys = new long[capacity];
+    this.buckets = new Portal[capacity][];
+    int mask = capacity - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldBuckets[i] == null) {
+        continue;
+      }
+
+      int idx = hash(oldKeys[i]) & mask;
+      while (this.buckets[idx] != null) {
+        idx = (idx + 1) & mask;
+      }
+      this.keys[idx] = oldKeys[i];
+      this.buckets[idx] = oldBuckets[i];
+    }
+  }
+}
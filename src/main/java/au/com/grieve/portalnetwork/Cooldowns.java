@@ -0,0 +1,117 @@
+/*
+ * PortalNetwork - Portals for Players
+ * Copyright (C) 2026 PortalNetwork Developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package au.com.grieve.portalnetwork;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.bukkit.entity.Entity;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+
+// Entities that have just teleported and should not be sent straight back. A cooldown ends once
+// the entity moves far enough from where it arrived or after a number of ticks, whichever is first.
+public class Cooldowns {
+  // Slots on the timing wheel. Longest cooldown must be shorter than this.
+  private static final int WHEEL_SIZE = 128;
+
+  private final Map<UUID, Cooldown> cooldowns = new HashMap<>();
+  private final List<List<UUID>> wheel = new ArrayList<>(WHEEL_SIZE);
+  private BukkitTask task;
+  private int tick;
+
+  public Cooldowns() {
+    for (int i = 0; i < WHEEL_SIZE; i++) {
+      this.wheel.add(new ArrayList<>());
+    }
+  }
+
+  public void add(@NotNull Entity entity, double distance, int ticks) {
+    int expires = this.tick + Math.min(Math.max(1, ticks), WHEEL_SIZE - 1);
+    this.cooldowns.put(
+        entity.getUniqueId(),
+        new Cooldown(entity.getX(), entity.getY(), entity.getZ(), distance * distance, expires));
+    this.wheel.get(expires & (WHEEL_SIZE - 1)).add(entity.getUniqueId());
+    this.start();
+  }
+
+  // Return true if entity is cooling down, ending it early if entity has moved far enough
+  public boolean isCoolingDown(@NotNull Entity entity) {
+    Cooldown cooldown = this.cooldowns.get(entity.getUniqueId());
+    if (cooldown == null) {
+      return false;
+    }
+
+    double dx = entity.getX() - cooldown.x();
+    double dy = entity.getY() - cooldown.y();
+    double dz = entity.getZ() - cooldown.z();
+    if (dx * dx + dy * dy + dz * dz > cooldown.distanceSquared()) {
+      this.cooldowns.remove(entity.getUniqueId());
+      return false;
+    }
+    return true;
+  }
+
+  public void clear() {
+    this.cooldowns.clear();
+    for (List<UUID> slot : this.wheel) {
+      slot.clear();
+    }
+    if (this.task != null) {
+      this.task.cancel();
+      this.task = null;
+    }
+  }
+
+  private void start() {
+    if (this.task != null) {
+      return;
+    }
+
+    this.task =
+        new BukkitRunnable() {
+          @Override
+          public void run() {
+            Cooldowns.this.advance();
+          }
+        }.runTaskTimer(PortalNetwork.instance, 1, 1);
+  }
+
+  // Expire everything due this tick. Entries replaced since being slotted have a later expiry.
+  private void advance() {
+    this.tick++;
+    List<UUID> slot = this.wheel.get(this.tick & (WHEEL_SIZE - 1));
+    for (UUID uid : slot) {
+      Cooldown cooldown = this.cooldowns.get(uid);
+      if (cooldown != null && cooldown.expires() == this.tick) {
+        this.cooldowns.remove(uid);
+      }
+    }
+    slot.clear();
+
+    if (this.cooldowns.isEmpty()) {
+      this.clear();
+    }
+  }
+
+  private record Cooldown(double x, double y, double z, double distanceSquared, int expires) {}
+}
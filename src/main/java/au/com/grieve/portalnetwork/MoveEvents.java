@@ -0,0 +1,123 @@
+/*
+ * PortalNetwork - Portals for Players
+ * Copyright (C) 2026 PortalNetwork Developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package au.com.grieve.portalnetwork;
+
+import au.com.grieve.portalnetwork.portals.Portal;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.vehicle.VehicleMoveEvent;
+
+// Teleports players and vehicles as their move events cross a portal. Listeners are only
+// registered while a portal is dialled.
+public class MoveEvents implements Listener, TeleportEngine {
+  // Ticks an entity is left alone after teleporting unless it moves away first
+  static final int COOLDOWN_TICKS = 40;
+
+  private final Cooldowns cooldowns = new Cooldowns();
+  private boolean registered;
+
+  @Override
+  public void start() {
+    if (!this.registered) {
+      PortalNetwork.instance
+          .getServer()
+          .getPluginManager()
+          .registerEvents(this, PortalNetwork.instance);
+      this.registered = true;
+    }
+  }
+
+  @Override
+  public void stop() {
+    if (this.registered) {
+      HandlerList.unregisterAll(this);
+      this.registered = false;
+      this.cooldowns.clear();
+    }
+  }
+
+  @EventHandler(ignoreCancelled = true)
+  public void onPlayerMoveEvent(PlayerMoveEvent event) {
+    Location from = event.getFrom();
+    Location to = event.getTo();
+
+    // If player has only looked around, ignore
+    if (from.getX() == to.getX() && from.getY() == to.getY() && from.getZ() == to.getZ()) {
+      return;
+    }
+
+    World world = from.getWorld();
+    if (world == null
+        || (!PortalNetwork.manager.isNearPortal(world, from.getBlockX(), from.getBlockZ())
+            && !PortalNetwork.manager.isNearPortal(world, to.getBlockX(), to.getBlockZ()))) {
+      return;
+    }
+
+    // Players that just arrived are left alone until they move away
+    if (this.cooldowns.isCoolingDown(event.getPlayer())) {
+      return;
+    }
+
+    Portal portal = PortalNetwork.manager.findCrossing(world, from, to);
+    if (portal == null) {
+      return;
+    }
+
+    if (portal.handlePlayerMove(event)) {
+      this.cooldowns.add(event.getPlayer(), 2, COOLDOWN_TICKS);
+    }
+  }
+
+  // Handle Vehicle moves
+  @EventHandler(ignoreCancelled = true)
+  public void onVehicleMoveEvent(VehicleMoveEvent event) {
+    Location from = event.getFrom();
+    Location to = event.getTo();
+
+    // If vehicle has not actually moved, ignore
+    if (from.getX() == to.getX() && from.getY() == to.getY() && from.getZ() == to.getZ()) {
+      return;
+    }
+
+    World world = from.getWorld();
+    if (world == null
+        || (!PortalNetwork.manager.isNearPortal(world, from.getBlockX(), from.getBlockZ())
+            && !PortalNetwork.manager.isNearPortal(world, to.getBlockX(), to.getBlockZ()))) {
+      return;
+    }
+
+    // Vehicles that just arrived are left alone until they move away
+    if (this.cooldowns.isCoolingDown(event.getVehicle())) {
+      return;
+    }
+
+    Portal portal = PortalNetwork.manager.findCrossing(world, from, to);
+    if (portal == null) {
+      return;
+    }
+
+    if (portal.handleVehicleMove(event)) {
+      this.cooldowns.add(event.getVehicle(), 3, COOLDOWN_TICKS);
+    }
+  }
+}
@@ -20,11 +20,13 @@ package au.com.grieve.portalnetwork;
 
 import au.com.grieve.portalnetwork.portals.Portal;
 import au.com.grieve.portalnetwork.portals.PortalTypes;
-import java.util.HashMap;
-import java.util.Map;
+import io.papermc.paper.event.packet.PlayerChunkLoadEvent;
+import java.util.Iterator;
+import java.util.List;
 import org.bukkit.GameMode;
-import org.bukkit.Location;
-import org.bukkit.entity.Entity;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Block;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
@@ -34,26 +36,29 @@ import org.bukkit.event.block.BlockBurnEvent;
 import org.bukkit.event.block.BlockExplodeEvent;
 import org.bukkit.event.block.BlockIgniteEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.entity.EntityPortalEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
-import org.bukkit.event.player.PlayerMoveEvent;
 import org.bukkit.event.player.PlayerPortalEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerTeleportEvent;
-import org.bukkit.event.vehicle.VehicleMoveEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
 import org.bukkit.inventory.CraftingRecipe;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataType;
-import org.bukkit.util.BlockVector;
-import org.bukkit.util.Vector;
+import org.jetbrains.annotations.NotNull;
 
 public class PortalEvents implements Listener {
-  final Map<Entity, BlockVector> ignore = new HashMap<>();
-
   // Stop burning portal
   @EventHandler(ignoreCancelled = true)
   public void onBlockBurnEvent(BlockBurnEvent event) {
+    if (!PortalNetwork.manager.isNearPortal(event.getBlock())) {
+      return;
+    }
+
     Portal portal = PortalNetwork.manager.find(event.getBlock().getLocation());
     if (portal != null) {
       portal.handleBlockBurn();
@@ -63,8 +68,37 @@ public class PortalEvents implements Listener {
   // Stop Exploding
   @EventHandler(ignoreCancelled = true)
   public void onBlockExplodeEvent(BlockExplodeEvent event) {
-    Portal portal = PortalNetwork.manager.find(event.getBlock().getLocation());
-    if (portal != null) {
+    this.handleExplosion(event.getBlock().getWorld(), event.blockList());
+  }
+
+  @EventHandler(ignoreCancelled = true)
+  public void onEntityExplodeEvent(EntityExplodeEvent event) {
+    this.handleExplosion(event.getLocation().getWorld(), event.blockList());
+  }
+
+  // Each portal caught in the blast is checked once however many of its blocks are destroyed
+  private void handleExplosion(@NotNull World world, @NotNull List<Block> blocks) {
+    // A destroyed portal block removes its portal and drops as a portal block, like breaking it
+    Iterator<Block> iterator = blocks.iterator();
+    while (iterator.hasNext()) {
+      Block block = iterator.next();
+      if (!PortalNetwork.manager.isNearPortal(block)) {
+        continue;
+      }
+
+      Portal portal = PortalNetwork.manager.getPortal(block.getLocation());
+      if (portal == null) {
+        continue;
+      }
+
+      iterator.remove();
+      world.dropItemNaturally(
+          block.getLocation(), PortalManager.createPortalBlock(portal.getType()));
+      portal.remove();
+      block.setType(Material.AIR);
+    }
+
+    for (Portal portal : PortalNetwork.manager.find(world, blocks)) {
       portal.handleBlockExplode();
     }
   }
@@ -72,6 +106,10 @@ public class PortalEvents implements Listener {
   // Stop ignition
   @EventHandler(ignoreCancelled = true)
   public void onBlockIgniteEvent(BlockIgniteEvent event) {
+    if (!PortalNetwork.manager.isNearPortal(event.getBlock())) {
+      return;
+    }
+
     Portal portal = PortalNetwork.manager.find(event.getBlock().getLocation());
     if (portal != null) {
       portal.handleBlockIgnite();
@@ -80,6 +118,10 @@ public class PortalEvents implements Listener {
 
   @EventHandler(ignoreCancelled = true)
   public void onBlockBreakEvent(BlockBreakEvent event) {
+    if (!PortalNetwork.manager.isNearPortal(event.getBlock())) {
+      return;
+    }
+
     // Check if player is breaking a portal block
     Portal portal = PortalNetwork.manager.getPortal(event.getBlock().getLocation());
     if (portal == null) {
@@ -117,12 +159,17 @@ public class PortalEvents implements Listener {
 
   @EventHandler
   public void onPlayerInteractEvent(PlayerInteractEvent event) {
+    if (event.getClickedBlock() == null
+        || !PortalNetwork.manager.isNearPortal(event.getClickedBlock())) {
+      return;
+    }
+
     // Ignore if player is sneaking
     if (event.getPlayer().isSneaking()) {
       return;
     }
 
-    if (event.getAction() != Action.RIGHT_CLICK_BLOCK || event.getClickedBlock() == null) {
+    if (event.getAction() != Action.RIGHT_CLICK_BLOCK) {
       return;
     }
 
@@ -140,102 +187,32 @@ public class PortalEvents implements Listener {
     event
         .getPlayer()
         .discoverRecipes(PortalTypes.getRecipes().stream().map(CraftingRecipe::getKey).toList());
+    PortalNetwork.renderer.addViewer(event.getPlayer());
   }
 
   @EventHandler
   public void onPlayerQuitEvent(PlayerQuitEvent event) {
-    this.ignore.remove(event.getPlayer());
-  }
-
-  @EventHandler(ignoreCancelled = true)
-  public void onPlayerMoveEvent(PlayerMoveEvent event) {
-    // If player has not actually moved, ignore
-    if (event.getFrom().toVector().toBlockVector() == event.getTo().toVector().toBlockVector()) {
-      return;
-    }
-
-    // If ignored player has moved enough we stop ignoring
-    if (this.ignore.containsKey(event.getPlayer())) {
-      if (this.ignore
-              .get(event.getPlayer())
-              .distanceSquared(event.getPlayer().getLocation().toVector())
-          > 4) {
-        this.ignore.remove(event.getPlayer());
-      } else {
-        return;
-      }
-    }
-
-    Vector velocity = event.getTo().toVector().subtract(event.getFrom().toVector());
-
-    Location loc =
-        event
-            .getFrom()
-            .clone()
-            .add(new Vector(velocity.getX() < 0 ? 0.2 : -0.2, 0, velocity.getZ() < 0 ? 0.2 : -0.2));
-    loc.setX(Math.round(loc.getX()));
-    loc.setZ(Math.round(loc.getZ()));
-
-    Portal portal = PortalNetwork.manager.findByPortal(loc);
-    if (portal == null) {
-      return;
-    }
-
-    portal.handlePlayerMove(event);
-    this.ignore.put(event.getPlayer(), event.getPlayer().getLocation().toVector().toBlockVector());
+    PortalNetwork.renderer.removeViewer(event.getPlayer());
   }
 
-  // Handle Vehicle moves
-  @EventHandler(ignoreCancelled = true)
-  public void onVehicleMoveEvent(VehicleMoveEvent event) {
-    // If ignored player has moved enough we stop ignoring
-    if (this.ignore.containsKey(event.getVehicle())) {
-      if (this.ignore
-              .get(event.getVehicle())
-              .distanceSquared(event.getVehicle().getLocation().toVector())
-          > 9) {
-        this.ignore.remove(event.getVehicle());
-      }
-      return;
-    }
-
-    // If vehicle has not actually moved, ignore
-    if (event.getFrom().toVector().toBlockVector() == event.getTo().toVector().toBlockVector()) {
+  // Resend portals drawn only on the client when the chunk under them is sent
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onPlayerChunkLoadEvent(PlayerChunkLoadEvent event) {
+    if (!PortalNetwork.manager.isNearPortal(
+        event.getWorld(), event.getChunk().getX() << 4, event.getChunk().getZ() << 4)) {
       return;
     }
 
-    Vector velocity = event.getTo().toVector().subtract(event.getFrom().toVector());
-
-    Location loc = event.getFrom().clone();
-    if (velocity.getZ() < 0) {
-      loc = loc.add(new Vector(0, 0, 0.5));
-    } else {
-      loc = loc.add(new Vector(0, 0, -0.5));
-    }
-
-    if (velocity.getX() < 0) {
-      loc = loc.add(new Vector(0.5, 0, 0));
-    } else {
-      loc = loc.add(new Vector(-0.5, 0, 0));
-    }
-
-    // X and Z to nearest whole number
-    loc.setX(Math.round(loc.getX()));
-    loc.setZ(Math.round(loc.getZ()));
-
-    Portal portal = PortalNetwork.manager.findByPortal(loc);
-    if (portal == null) {
-      return;
-    }
-
-    portal.handleVehicleMove(event);
-    this.ignore.put(
-        event.getVehicle(), event.getVehicle().getLocation().toVector().toBlockVector());
+    PortalNetwork.renderer.sendChunk(event.getPlayer(), event.getChunk());
   }
 
   // Probably should move this inside nether/end portal class
   @EventHandler(priority = EventPriority.LOW)
   public void onEntityPortalEvent(EntityPortalEvent event) {
+    if (!PortalNetwork.manager.isNearPortal(event.getFrom())) {
+      return;
+    }
+
     Portal portal = PortalNetwork.manager.find(event.getFrom(), 2);
     if (portal == null) {
       return;
@@ -248,7 +225,7 @@ public class PortalEvents implements Listener {
   // Probably should move this inside nether portal class
   @EventHandler(priority = EventPriority.LOW)
   public void onPlayerPortalEvent(PlayerPortalEvent event) {
-    if (event.isCancelled()) {
+    if (event.isCancelled() || !PortalNetwork.manager.isNearPortal(event.getFrom())) {
       return;
     }
 
@@ -268,6 +245,21 @@ public class PortalEvents implements Listener {
     event.setCancelled(true);
   }
 
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onWorldLoadEvent(WorldLoadEvent event) {
+    PortalNetwork.manager.loadWorld(event.getWorld());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  public void onChunkLoadEvent(ChunkLoadEvent event) {
+    PortalNetwork.manager.loadChunk(event.getChunk());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  public void onWorldUnloadEvent(WorldUnloadEvent event) {
+    PortalNetwork.manager.unloadWorld(event.getWorld());
+  }
+
   @EventHandler(ignoreCancelled = true)
   public void onBlockPlaceEvent(BlockPlaceEvent event) {
     // Ignore if player is sneaking
@@ -290,6 +282,10 @@ public class PortalEvents implements Listener {
       }
     }
 
+    if (!PortalNetwork.manager.isNearPortal(event.getBlock())) {
+      return;
+    }
+
     Portal portal = PortalNetwork.manager.find(event.getBlock().getLocation(), 2);
     if (portal == null) {
       return;
@@ -19,41 +19,69 @@
 package au.com.grieve.portalnetwork;
 
 import au.com.grieve.portalnetwork.portals.Portal;
+import au.com.grieve.portalnetwork.portals.PortalBounds;
 import au.com.grieve.portalnetwork.portals.PortalTypes;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.Hashtable;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Stream;
+import java.util.Set;
+import java.util.UUID;
 import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.configuration.ConfigurationSection;
-import org.bukkit.configuration.InvalidConfigurationException;
-import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.World;
+import org.bukkit.block.Block;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataType;
-import org.bukkit.util.BlockVector;
-import org.bukkit.util.Vector;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public class PortalManager {
-  // Live portals
-  private final List<Portal> portals = new ArrayList<>();
+  // Longest to wait for portal data to be written when shutting down
+  private static final long CLOSE_TIMEOUT = 5000;
 
-  // Location Maps
-  private final Hashtable<BlockVector, Portal> indexFrames = new Hashtable<>();
-  private final Hashtable<BlockVector, Portal> indexPortals = new Hashtable<>();
-  private final Hashtable<BlockVector, Portal> indexBases = new Hashtable<>();
-  private final Hashtable<BlockVector, Portal> indexPortalBlocks = new Hashtable<>();
+  // Portals partitioned by world
+  private final Map<UUID, PortalWorld> worlds = new HashMap<>();
+
+  // Live portals by id and the next id to hand out
+  private final Map<Long, Portal> portals = new HashMap<>();
+  private long nextId = 1;
+
+  // Portals restored from saved data that have not been checked against the world yet, and the
+  // dials to make between portal ids once both ends have been
+  private final Set<Portal> unmaterialized = new HashSet<>();
+  private final Map<Long, Long> pendingDials = new HashMap<>();
+
+  // Valid portals by network and address. Networks are 8 bits and addresses 4 bits.
+  private final Portal[] addresses = new Portal[4096];
+  private final Map<Portal, Integer> addressSlots = new HashMap<>();
+
+  // Portals currently dialled. Teleport detection only runs while there are any.
+  private final Set<Portal> dialled = new LinkedHashSet<>();
+
+  // Portals waiting to be revalidated and the tick they are due
+  private final Map<Portal, Integer> dirty = new LinkedHashMap<>();
+  private BukkitTask task;
+  private int tick;
+
+  // Writes portal data while loaded
+  private PortalStore store;
+
+  // Saved portal data for worlds that are not loaded
+  private final Map<UUID, List<PortalRecord>> unloaded = new HashMap<>();
 
   public static @NotNull ItemStack createPortalBlock(@NotNull String type) {
     ItemStack item = new ItemStack(Material.GOLD_BLOCK, 1);
@@ -65,142 +93,435 @@ public class PortalManager {
   }
 
   public void clear() {
-    while (!this.portals.isEmpty()) {
-      Portal portal = this.portals.removeFirst();
-      portal.remove();
+    this.stop();
+
+    if (this.store != null) {
+      this.store.close(CLOSE_TIMEOUT);
+      this.store = null;
+    }
+
+    // Close dialled portals so their blocks do not outlive the plugin. Their dials have been
+    // saved and are made again when loaded. Portals in unloaded chunks are left alone rather
+    // than loading them.
+    for (Portal portal : this.dialled) {
+      if (!this.unmaterialized.contains(portal) && this.isLoaded(portal)) {
+        portal.close();
+      }
     }
+    this.worlds.clear();
+    this.portals.clear();
+    this.unmaterialized.clear();
+    this.pendingDials.clear();
+    this.unloaded.clear();
+    this.dialled.clear();
+    PortalNetwork.teleporters.forEach(TeleportEngine::stop);
+    Arrays.fill(this.addresses, null);
+    this.addressSlots.clear();
   }
 
-  public void load() {
-    // Portal Data
-    YamlConfiguration portalConfig = new YamlConfiguration();
-    try {
-      portalConfig.load(new File(PortalNetwork.instance.getDataFolder(), "portal-data.yml"));
-    } catch (FileNotFoundException e) {
-      // ignored
-    } catch (IOException | InvalidConfigurationException e) {
-      PortalNetwork.logWarning(
-          "Failed to load 'portal-data.yml'. Ignoring but portal data may be lost");
-    }
-
-    // Initialize all portals
-    Map<Portal, Integer> dialed = new HashMap<>();
-
-    ConfigurationSection portalsData = portalConfig.getConfigurationSection("portals");
-    if (portalsData != null) {
-      for (String key : portalsData.getKeys(false)) {
-        ConfigurationSection portalData = portalsData.getConfigurationSection(key);
-        if (portalData == null) {
-          continue;
-        }
+  // Return true if every chunk portal covers is loaded
+  private boolean isLoaded(@NotNull Portal portal) {
+    World world = portal.getLocation().getWorld();
+    if (world == null) {
+      return false;
+    }
 
-        Portal portal;
-        try {
-          portal =
-              this.createPortal(
-                  portalData.getString("portal_type"), portalData.getLocation("location"));
-        } catch (InvalidPortalException e) {
-          PortalNetwork.logError(e);
-          continue;
+    PortalBounds bounds = portal.getGeometry().bounds();
+    for (int chunkX = bounds.minX() >> 4; chunkX <= bounds.maxX() >> 4; chunkX++) {
+      for (int chunkZ = bounds.minZ() >> 4; chunkZ <= bounds.maxZ() >> 4; chunkZ++) {
+        if (!world.isChunkLoaded(chunkX, chunkZ)) {
+          return false;
         }
+      }
+    }
+    return true;
+  }
 
-        if (portalData.contains("dialled")) {
-          dialed.put(portal, portalData.getInt("dialled"));
-        }
+  public void load() {
+    this.store = new PortalStore(PortalNetwork.instance.getDataFolder());
+    for (PortalRecord record : this.store.read()) {
+      this.unloaded.computeIfAbsent(record.world(), k -> new ArrayList<>()).add(record);
+      this.nextId = Math.max(this.nextId, record.id() + 1);
+    }
+
+    for (World world : Bukkit.getWorlds()) {
+      this.loadWorld(world);
+    }
+  }
+
+  // Attach partition for a world creating any portals saved against it
+  public void loadWorld(@NotNull World world) {
+    List<PortalRecord> records = this.unloaded.remove(world.getUID());
+    if (records == null) {
+      return;
+    }
+
+    // Register portals from their saved state. Portals saved with their geometry are checked
+    // against the world once their chunk loads, older data is checked straight away.
+    PortalWorld portalWorld = this.getWorld(world);
+
+    for (PortalRecord record : records) {
+      Portal portal;
+      try {
+        portal =
+            this.register(
+                record.type(),
+                new Location(world, record.x(), record.y(), record.z()),
+                record.id());
+      } catch (InvalidPortalException e) {
+        PortalNetwork.logError(e);
+        continue;
+      }
+
+      if (record.valid() && record.geometry() == null) {
+        portal.update();
+        this.journal(portal, PortalStore.Op.REVALIDATE);
+        continue;
+      }
+
+      portal.restore(record.valid(), record.network(), record.address(), record.geometry());
+      this.unmaterialized.add(portal);
+      portalWorld.defer(portal);
+
+      Integer address = record.dialledAddress();
+      if (address != null) {
+        this.store.getLegacyDials().put(record.id(), address);
+      } else if (record.dialled() != null) {
+        this.pendingDials.putIfAbsent(record.id(), record.dialled());
+        this.pendingDials.putIfAbsent(record.dialled(), record.id());
+      }
+    }
+
+    // Portals saved before dials were stored by id dial by address. Once the other end is
+    // registered this becomes a dial by id, made when both ends have been checked.
+    Iterator<Map.Entry<Long, Integer>> legacy = this.store.getLegacyDials().entrySet().iterator();
+    while (legacy.hasNext()) {
+      Map.Entry<Long, Integer> entry = legacy.next();
+      Portal portal = this.portals.get(entry.getKey());
+      if (portal == null) {
+        continue;
+      }
+
+      if (!portal.isValid()) {
+        legacy.remove();
+        continue;
+      }
+
+      Portal partner = this.find(portal.getNetwork(), entry.getValue(), true);
+      if (partner == null) {
+        continue;
+      }
+
+      legacy.remove();
+      if (!this.unmaterialized.contains(portal) && !this.unmaterialized.contains(partner)) {
+        portal.dial(partner, null);
+        continue;
+      }
+      this.pendingDials.putIfAbsent(portal.getId(), partner.getId());
+      this.pendingDials.putIfAbsent(partner.getId(), portal.getId());
+    }
+
+    // Chunks that are already loaded will not fire a load event
+    for (long chunkKey : new ArrayList<>(portalWorld.getDeferredChunks())) {
+      if (world.isChunkLoaded((int) chunkKey, (int) (chunkKey >> 32))) {
+        this.loadChunk(portalWorld, chunkKey);
       }
     }
+  }
+
+  // Check portals restored in a chunk that has just loaded
+  public void loadChunk(@NotNull Chunk chunk) {
+    PortalWorld portalWorld = this.worlds.get(chunk.getWorld().getUID());
+    if (portalWorld != null) {
+      this.loadChunk(portalWorld, ChunkIndex.key(chunk.getX(), chunk.getZ()));
+    }
+  }
+
+  private void loadChunk(@NotNull PortalWorld portalWorld, long chunkKey) {
+    List<Portal> waiting = portalWorld.undefer(chunkKey);
+    if (waiting == null) {
+      return;
+    }
 
-    // Dial Portals
-    for (Map.Entry<Portal, Integer> dialedPortal : dialed.entrySet()) {
-      dialedPortal.getKey().dial(dialedPortal.getValue());
+    // Wait a tick so the chunk has finished loading before it is read
+    for (Portal portal : waiting) {
+      this.markDirty(portal, 1);
     }
   }
 
-  public void save() {
-    // Portal Data
-    YamlConfiguration portalConfig = new YamlConfiguration();
-    ConfigurationSection portalsData = portalConfig.createSection("portals");
-    for (int i = 0; i < this.portals.size(); i++) {
-      Portal portal = this.portals.get(i);
-      ConfigurationSection portalData = portalsData.createSection(Integer.toString(i));
+  // Called once portal has been checked against the world. Restored portals are dialled once
+  // both ends have been checked.
+  public void updated(@NotNull Portal portal) {
+    if (!this.unmaterialized.remove(portal)) {
+      return;
+    }
 
-      if (portal.getDialledPortal() != null) {
-        portalData.set("dialled", portal.getDialledPortal().getAddress());
+    Long partnerId = this.pendingDials.get(portal.getId());
+    if (partnerId == null) {
+      return;
+    }
+
+    // The other end dials us once it has been checked
+    Portal partner = this.portals.get(partnerId);
+    if (partner == null || this.unmaterialized.contains(partner)) {
+      return;
+    }
+
+    this.pendingDials.remove(portal.getId());
+    this.pendingDials.remove(partnerId);
+    if (portal.isValid() && partner.isValid()) {
+      portal.dial(partner, null);
+    }
+  }
+
+  // Drop partition for a world, keeping its portal data until the world is loaded again
+  public void unloadWorld(@NotNull World world) {
+    PortalWorld portalWorld = this.worlds.remove(world.getUID());
+    if (portalWorld == null) {
+      return;
+    }
+
+    List<PortalRecord> records = new ArrayList<>();
+    for (Portal portal : portalWorld.getPortals()) {
+      records.add(this.record(portal));
+      this.portals.remove(portal.getId());
+      this.unmaterialized.remove(portal);
+      this.unindexAddress(portal);
+    }
+    this.unloaded.put(world.getUID(), records);
+
+    // Portals in other worlds can no longer connect to us and ours are no longer tracked
+    for (Portal portal : portalWorld.getPortals()) {
+      Portal dialled = portal.getDialledPortal();
+      if (dialled != null && dialled.getLocation().getWorld() != world) {
+        portal.dial(null);
       }
-      portalData.set("portal_type", portal.getType());
-      portalData.set("location", portal.getLocation());
-      portalData.set("valid", portal.isValid());
+      this.setDialled(portal, false);
+    }
+  }
+
+  // Record a change to portal so it is saved
+  public void journal(@NotNull Portal portal, @NotNull PortalStore.Op op) {
+    if (this.store == null) {
+      return;
+    }
+
+    // Dialling replaces a dial still waiting on the other end
+    if (op == PortalStore.Op.DIAL || op == PortalStore.Op.UNDIAL) {
+      Long pending = this.pendingDials.remove(portal.getId());
+      if (pending != null) {
+        this.pendingDials.remove(pending, portal.getId());
+      }
+      this.store.getLegacyDials().remove(portal.getId());
+    }
+    this.store.append(op, this.record(portal));
+  }
+
+  // Saved state of portal, keeping a dial still waiting on the other end so it is not lost
+  private @NotNull PortalRecord record(@NotNull Portal portal) {
+    PortalRecord record = PortalRecord.of(portal);
+    if (record.dialled() != null) {
+      return record;
+    }
+
+    Long pending = this.pendingDials.get(portal.getId());
+    if (pending != null) {
+      return record.withDialled(pending);
     }
 
-    try {
-      portalConfig.save(new File(PortalNetwork.instance.getDataFolder(), "portal-data.yml"));
-    } catch (IOException e) {
-      PortalNetwork.logWarning(
-          "Failed to save 'portal-data.yml'. Ignoring but portal data may be lost");
+    Integer address = this.store != null ? this.store.getLegacyDials().get(portal.getId()) : null;
+    if (address != null) {
+      return record.withDialled(PortalRecord.dialByAddress(address));
     }
+    return record;
+  }
+
+  // Revalidate portal after delay ticks. A portal already waiting keeps its original time so
+  // repeated changes to the same portal are only checked once.
+  public void markDirty(@NotNull Portal portal, int delay) {
+    this.dirty.putIfAbsent(portal, this.tick + Math.max(1, delay));
+    this.start();
+  }
+
+  private void start() {
+    if (this.task != null) {
+      return;
+    }
+
+    this.task =
+        new BukkitRunnable() {
+          @Override
+          public void run() {
+            PortalManager.this.drain();
+          }
+        }.runTaskTimer(PortalNetwork.instance, 0, 1);
+  }
+
+  private void stop() {
+    if (this.task != null) {
+      this.task.cancel();
+      this.task = null;
+    }
+    this.dirty.clear();
+  }
+
+  private void drain() {
+    this.tick++;
+    List<Portal> due = new ArrayList<>();
+    Iterator<Map.Entry<Portal, Integer>> iterator = this.dirty.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Portal, Integer> entry = iterator.next();
+      if (entry.getValue() - this.tick > 0) {
+        continue;
+      }
+
+      iterator.remove();
+      due.add(entry.getKey());
+    }
+
+    // Updating can load chunks, which marks the portals in them dirty
+    for (Portal portal : due) {
+      if (this.contains(portal)) {
+        portal.updateAsync();
+      }
+    }
+
+    if (this.dirty.isEmpty()) {
+      this.stop();
+    }
+  }
+
+  // Record whether portal is dialled, starting or stopping teleport detection as needed
+  public void setDialled(@NotNull Portal portal, boolean dialled) {
+    boolean idle = this.dialled.isEmpty();
+    if (dialled) {
+      this.dialled.add(portal);
+    } else {
+      this.dialled.remove(portal);
+    }
+
+    if (idle && !this.dialled.isEmpty()) {
+      PortalNetwork.teleporters.forEach(TeleportEngine::start);
+    } else if (!idle && this.dialled.isEmpty()) {
+      PortalNetwork.teleporters.forEach(TeleportEngine::stop);
+    }
+  }
+
+  public @NotNull Collection<Portal> getDialled() {
+    return this.dialled;
   }
 
   // Create a new portal
   public Portal createPortal(String portalType, Location location) throws InvalidPortalException {
+    Portal portal = this.register(portalType, location, this.nextId);
+    portal.update();
+    this.journal(portal, PortalStore.Op.CREATE);
+    return portal;
+  }
+
+  private Portal register(String portalType, Location location, long id)
+      throws InvalidPortalException {
     if (portalType == null) {
       throw new InvalidPortalException("Missing portal type");
     }
 
-    Portal portal = PortalTypes.createPortalAt(portalType, location);
-    this.portals.add(portal);
+    if (location == null || location.getWorld() == null) {
+      throw new InvalidPortalException("Missing portal world");
+    }
+
+    Portal portal = PortalTypes.createPortalAt(portalType, id, location);
+    this.nextId = Math.max(this.nextId, id + 1);
+    this.getWorld(location.getWorld()).addPortal(portal);
+    this.portals.put(id, portal);
     return portal;
   }
 
   public void removePortal(@NotNull Portal portal) {
-    this.portals.remove(portal);
-    this.indexFrames.values().removeIf((Portal v) -> v.equals(portal));
-    this.indexPortals.values().removeIf((Portal v) -> v.equals(portal));
-    this.indexBases.values().removeIf((Portal v) -> v.equals(portal));
-    this.indexPortalBlocks.values().removeIf((Portal v) -> v.equals(portal));
+    PortalWorld world = this.getWorld(portal.getLocation());
+    if (world != null) {
+      world.removePortal(portal);
+    }
+    this.portals.remove(portal.getId());
+    this.unmaterialized.remove(portal);
+    this.pendingDials.remove(portal.getId());
+    this.unindexAddress(portal);
+    this.journal(portal, PortalStore.Op.REMOVE);
   }
 
   public void reindexPortal(Portal portal) {
-    this.indexPortalBlocks.values().removeIf((Portal v) -> v.equals(portal));
-    this.indexPortalBlocks.put(portal.getLocation().toVector().toBlockVector(), portal);
+    this.getWorld(Objects.requireNonNull(portal.getLocation().getWorld())).reindexPortal(portal);
+    this.unindexAddress(portal);
+    if (portal.isValid()) {
+      int slot = addressSlot(portal.getNetwork(), portal.getAddress());
+      if (slot != -1 && this.addresses[slot] == null) {
+        this.addresses[slot] = portal;
+        this.addressSlots.put(portal, slot);
+      }
+    }
+  }
 
-    this.indexFrames.values().removeIf((Portal v) -> v.equals(portal));
-    for (Iterator<BlockVector> it = portal.getPortalFrameIterator(); it.hasNext(); ) {
-      BlockVector loc = it.next();
-      this.indexFrames.put(loc, portal);
+  private void unindexAddress(@NotNull Portal portal) {
+    Integer slot = this.addressSlots.remove(portal);
+    if (slot != null && this.addresses[slot] == portal) {
+      this.addresses[slot] = null;
     }
+  }
 
-    this.indexPortals.values().removeIf((Portal v) -> v.equals(portal));
-    for (Iterator<BlockVector> it = portal.getPortalIterator(); it.hasNext(); ) {
-      BlockVector loc = it.next();
-      this.indexPortals.put(loc, portal);
+  private static int addressSlot(int network, int address) {
+    if (network < 0 || network > 0xFF || address < 0 || address > 0xF) {
+      return -1;
     }
+    return (network << 4) | address;
+  }
 
-    this.indexBases.values().removeIf((Portal v) -> v.equals(portal));
-    for (Iterator<BlockVector> it = portal.getPortalBaseIterator(); it.hasNext(); ) {
-      BlockVector loc = it.next();
-      this.indexBases.put(loc, portal);
+  // Get partition for a world, creating it if needed
+  public @NotNull PortalWorld getWorld(@NotNull World world) {
+    return this.worlds.computeIfAbsent(world.getUID(), PortalWorld::new);
+  }
+
+  // Get partition for a location if it has any portals
+  public @Nullable PortalWorld getWorld(@NotNull Location location) {
+    World world = location.getWorld();
+    if (world == null) {
+      return null;
     }
+    return this.worlds.get(world.getUID());
   }
 
-  // Find a portal
-  public @Nullable Portal find(
-      @NotNull Integer network, @NotNull Integer address, @Nullable Boolean valid) {
-    for (Portal portal : this.portals) {
-      if (valid != null && portal.isValid() != valid) {
-        continue;
-      }
+  // Return true if portal is still managed in a loaded world
+  public boolean contains(@NotNull Portal portal) {
+    PortalWorld world = this.getWorld(portal.getLocation());
+    return world != null && world.contains(portal);
+  }
 
-      if (!Objects.equals(portal.getNetwork(), network)) {
-        continue;
-      }
+  // Quick check if a block could belong to, or be near, a portal
+  public boolean isNearPortal(@NotNull World world, int blockX, int blockZ) {
+    PortalWorld portalWorld = this.worlds.get(world.getUID());
+    return portalWorld != null && portalWorld.isNearPortal(blockX, blockZ);
+  }
 
-      if (!Objects.equals(portal.getAddress(), address)) {
-        continue;
-      }
+  public boolean isNearPortal(@NotNull Location location) {
+    World world = location.getWorld();
+    return world != null && this.isNearPortal(world, location.getBlockX(), location.getBlockZ());
+  }
 
-      return portal;
+  public boolean isNearPortal(@NotNull Block block) {
+    return this.isNearPortal(block.getWorld(), block.getX(), block.getZ());
+  }
+
+  // Find a portal. Only valid portals hold an address.
+  public @Nullable Portal find(
+      @NotNull Integer network, @NotNull Integer address, @Nullable Boolean valid) {
+    int slot = addressSlot(network, address);
+    if (slot == -1) {
+      return null;
+    }
+
+    Portal portal = this.addresses[slot];
+    if (portal == null || (valid != null && portal.isValid() != valid)) {
+      return null;
     }
-    return null;
+    return portal;
   }
 
   public @Nullable Portal find(@NotNull Integer network, @NotNull Integer address) {
@@ -208,49 +529,24 @@ public class PortalManager {
   }
 
   // Get a portal at location
-  public @Nullable Portal find(@NotNull BlockVector search, @Nullable Boolean valid) {
-    Portal portal =
-        Stream.concat(
-                this.indexFrames.entrySet().stream(),
-                Stream.concat(
-                    this.indexPortals.entrySet().stream(), this.indexBases.entrySet().stream()))
-            .filter((Map.Entry<BlockVector, Portal> e) -> e.getKey().equals(search))
-            .map(Map.Entry::getValue)
-            .findFirst()
-            .orElse(null);
-
-    if (portal != null) {
-      if (valid == null || valid == portal.isValid()) {
-        return portal;
-      }
+  public @Nullable Portal find(@NotNull Location location, @Nullable Boolean valid, int distance) {
+    PortalWorld world = this.getWorld(location);
+    if (world == null) {
+      return null;
     }
-    return null;
-  }
 
-  // Get a portal at location
-  public @Nullable Portal find(@NotNull Location location, @Nullable Boolean valid, int distance) {
-    BlockVector search = location.toVector().toBlockVector();
-    Portal portal;
+    int blockX = location.getBlockX();
+    int blockY = location.getBlockY();
+    int blockZ = location.getBlockZ();
 
     // Check exact match
-    portal = this.find(search, valid);
+    Portal portal = world.find(blockX, blockY, blockZ, valid);
 
-    if (portal != null) {
+    if (portal != null || distance <= 0) {
       return portal;
     }
 
-    for (int x = -distance; x < distance; x++) {
-      for (int y = -distance; y < distance; y++) {
-        for (int z = -distance; z < distance; z++) {
-          portal = this.find(search.clone().add(new Vector(x, y, z)).toBlockVector(), valid);
-          if (portal != null) {
-            return portal;
-          }
-        }
-      }
-    }
-
-    return null;
+    return world.findNear(blockX, blockY, blockZ, distance, valid);
   }
 
   public @Nullable Portal find(@NotNull Location location) {
@@ -261,32 +557,56 @@ public class PortalManager {
     return this.find(location, null, distance);
   }
 
-  // Get a portal based upon its inside
-  public @Nullable Portal findByPortal(@NotNull BlockVector search, @Nullable Boolean valid) {
-    Portal portal =
-        this.indexPortals.entrySet().stream()
-            .filter((Map.Entry<BlockVector, Portal> e) -> e.getKey().equals(search))
-            .map(Map.Entry::getValue)
-            .findFirst()
-            .orElse(null);
+  // Get the distinct portals owning any of blocks as a frame, portal or base
+  public @NotNull Set<Portal> find(@NotNull World world, @NotNull Collection<Block> blocks) {
+    Set<Portal> portals = new LinkedHashSet<>();
+    PortalWorld portalWorld = this.worlds.get(world.getUID());
+    if (portalWorld == null) {
+      return portals;
+    }
 
-    if (portal != null) {
-      if (valid == null || valid == portal.isValid()) {
-        return portal;
+    for (Block block : blocks) {
+      if (!portalWorld.isNearPortal(block.getX(), block.getZ())) {
+        continue;
+      }
+
+      Portal portal = portalWorld.find(block.getX(), block.getY(), block.getZ(), null);
+      if (portal != null) {
+        portals.add(portal);
       }
     }
-    return null;
+    return portals;
   }
 
-  public @Nullable Portal findByPortal(@NotNull Location location) {
-    return this.findByPortal(location.toVector().toBlockVector(), null);
+  // Get a portal whose interior is passed through moving between two locations in world
+  public @Nullable Portal findCrossing(
+      @NotNull World world, @NotNull Location from, @NotNull Location to) {
+    PortalWorld portalWorld = this.worlds.get(world.getUID());
+    if (portalWorld == null) {
+      return null;
+    }
+    return portalWorld.findCrossing(
+        from.getX(), from.getY(), from.getZ(), to.getX(), to.getY(), to.getZ());
   }
 
   public @Nullable Portal getPortal(@NotNull Location location) {
-    return this.indexPortalBlocks.get(location.toVector().toBlockVector());
+    PortalWorld world = this.getWorld(location);
+    if (world == null) {
+      return null;
+    }
+    return world.find(
+        location.getBlockX(),
+        location.getBlockY(),
+        location.getBlockZ(),
+        BlockIndex.Role.BLOCK,
+        null);
   }
 
   public @NotNull List<Portal> getPortals() {
-    return this.portals;
+    List<Portal> portals = new ArrayList<>();
+    for (PortalWorld world : this.worlds.values()) {
+      portals.addAll(world.getPortals());
+    }
+    return portals;
   }
 }
@@ -19,6 +19,11 @@
 package au.com.grieve.portalnetwork;
 
 import au.com.grieve.portalnetwork.commands.CommandDispatch;
+import au.com.grieve.portalnetwork.portals.ClientRenderer;
+import au.com.grieve.portalnetwork.portals.PortalRenderer;
+import au.com.grieve.portalnetwork.portals.RenderScheduler;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandMap;
@@ -28,6 +33,8 @@ import org.jetbrains.annotations.NotNull;
 public final class PortalNetwork extends JavaPlugin {
   public static PortalNetwork instance;
   public static PortalManager manager;
+  public static PortalRenderer renderer;
+  public static final List<TeleportEngine> teleporters = new ArrayList<>();
 
   public PortalNetwork() {
     instance = this;
@@ -36,6 +43,33 @@ public final class PortalNetwork extends JavaPlugin {
 
   @Override
   public void onEnable() {
+    this.saveDefaultConfig();
+    renderer =
+        switch (this.getConfig().getString("render.mode", "world")) {
+          case "client" -> new ClientRenderer(this.getConfig().getInt("render.distance", 64));
+          default ->
+              new RenderScheduler(
+                  this.getConfig().getInt("render.blocks-per-tick", 256),
+                  this.getConfig().getDouble("render.millis-per-tick", 2));
+        };
+    teleporters.clear();
+    teleporters.add(
+        switch (this.getConfig().getString("teleport.engine", "events")) {
+          case "proximity" ->
+              ProximityTracker.players(
+                  this.getConfig().getDouble("teleport.radius", 8),
+                  this.getConfig().getInt("teleport.interval", 10));
+          default -> new MoveEvents();
+        });
+    if (this.getConfig().getBoolean("transport.enabled", true)) {
+      teleporters.add(
+          ProximityTracker.entities(
+              this.getConfig().getDouble("transport.radius", 2),
+              this.getConfig().getInt("transport.interval", 5),
+              this.getConfig().getInt("transport.per-portal", 8),
+              this.getConfig().getInt("transport.per-tick", 64)));
+    }
+
     manager.load();
     getServer().getPluginManager().registerEvents(new PortalEvents(), PortalNetwork.this);
     this.getServer().getCommandMap().register("pn", new CommandDispatch());
@@ -44,6 +78,7 @@ public final class PortalNetwork extends JavaPlugin {
   @Override
   public void onDisable() {
     manager.clear();
+    renderer.flush();
     CommandMap commandMap = this.getServer().getCommandMap();
     Command command = commandMap.getCommand("pn");
     if (command != null) {
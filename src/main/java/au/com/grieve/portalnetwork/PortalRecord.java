@@ -0,0 +1,98 @@
+/*
+ * PortalNetwork - Portals for Players
+ * Copyright (C) 2026 PortalNetwork Developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package au.com.grieve.portalnetwork;
+
+import au.com.grieve.portalnetwork.portals.Portal;
+import au.com.grieve.portalnetwork.portals.PortalGeometry;
+import java.util.Objects;
+import java.util.UUID;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// Saved state of a portal. Dials refer to the other portal's id and geometry is only known for
+// portals that were valid when saved. Dials saved before portals had ids are kept by address as
+// a negative dialled value until the portal at that address is known.
+public record PortalRecord(
+    long id,
+    @NotNull UUID world,
+    int x,
+    int y,
+    int z,
+    @NotNull String type,
+    boolean valid,
+    int network,
+    int address,
+    @Nullable Long dialled,
+    @Nullable PortalGeometry geometry) {
+
+  public static @NotNull PortalRecord of(@NotNull Portal portal) {
+    Portal dialled = portal.getDialledPortal();
+    return new PortalRecord(
+        portal.getId(),
+        Objects.requireNonNull(portal.getLocation().getWorld()).getUID(),
+        portal.getLocation().getBlockX(),
+        portal.getLocation().getBlockY(),
+        portal.getLocation().getBlockZ(),
+        portal.getType(),
+        portal.isValid(),
+        portal.isValid() ? portal.getNetwork() : 0,
+        portal.isValid() ? portal.getAddress() : 0,
+        dialled == null ? null : dialled.getId(),
+        portal.isValid() ? portal.getGeometry() : null);
+  }
+
+  public static long dialByAddress(int address) {
+    return -1L - address;
+  }
+
+  // Address dialled if this was saved before dials were by id
+  public @Nullable Integer dialledAddress() {
+    return this.dialled != null && this.dialled < 0 ? (int) (-1L - this.dialled) : null;
+  }
+
+  public @NotNull PortalRecord withId(long id) {
+    return new PortalRecord(
+        id,
+        this.world,
+        this.x,
+        this.y,
+        this.z,
+        this.type,
+        this.valid,
+        this.network,
+        this.address,
+        this.dialled,
+        this.geometry);
+  }
+
+  public @NotNull PortalRecord withDialled(@Nullable Long dialled) {
+    return new PortalRecord(
+        this.id,
+        this.world,
+        this.x,
+        this.y,
+        this.z,
+        this.type,
+        this.valid,
+        this.network,
+        this.address,
+        dialled,
+        this.geometry);
+  }
+}
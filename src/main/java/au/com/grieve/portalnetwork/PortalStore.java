@@ -0,0 +1,752 @@
+/*
+ * PortalNetwork - Portals for Players
+ * Copyright (C) 2026 PortalNetwork Developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package au.com.grieve.portalnetwork;
+
+import au.com.grieve.portalnetwork.portals.PortalBounds;
+import au.com.grieve.portalnetwork.portals.PortalGeometry;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+import org.bukkit.Location;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// Persists portals as a binary snapshot plus a journal of changes made since. Changes are
+// appended on a background thread, with everything queued at the time written and synced
+// together. Once the journal grows large enough it is folded into a new snapshot.
+//
+// The snapshot starts with a world and type table that portals refer to by index. Portal
+// positions are packed with BlockIndex.key() and valid portals carry their geometry. The journal
+// starts with its own version and each entry is its length, a CRC32 and the change, so a partly
+// written entry at the end is detected and dropped.
+public class PortalStore {
+  public enum Op {
+    CREATE,
+    REMOVE,
+    REVALIDATE,
+    DIAL,
+    UNDIAL
+  }
+
+  private static final int MAGIC = 0x504E4454;
+  private static final int VERSION = 2;
+
+  private static final int FLAG_VALID = 1;
+  private static final int FLAG_DIALLED = 2;
+  private static final int FLAG_GEOMETRY = 4;
+
+  // Smallest a portal can be in the snapshot, without an id or dial
+  private static final int PORTAL_SIZE = 17;
+
+  // Journal size that triggers compaction
+  private static final long COMPACT_SIZE = 1 << 20;
+
+  private final File file;
+  private final File journalFile;
+  private final File legacy;
+
+  // Portals by id as of the last change. Only used by the store thread once loaded.
+  private final Map<Long, PortalRecord> portals = new LinkedHashMap<>();
+
+  // Version of the data being read. Version 1 and the YAML file have no ids and dial by address.
+  private int version = VERSION;
+  private final Map<Long, Integer> legacyDials = new HashMap<>();
+
+  private final Queue<Change> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+  private FileChannel journal;
+
+  private final ExecutorService executor =
+      Executors.newSingleThreadExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "PortalNetwork-Store");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  public PortalStore(@NotNull File folder) {
+    this.file = new File(folder, "portal-data.dat");
+    this.journalFile = new File(folder, "portal-data.log");
+    this.legacy = new File(folder, "portal-data.yml");
+  }
+
+  // Read saved portals, replaying the journal over the snapshot. The first time this runs after
+  // upgrading the old YAML file is read and written back out in the new format. The YAML file is
+  // left in place.
+  public @NotNull List<PortalRecord> read() {
+    // Portals are matched by position while reading as older data has no ids
+    Map<Key, PortalRecord> loaded = new LinkedHashMap<>();
+
+    if (!this.file.exists() && !this.journalFile.exists()) {
+      this.version = 0;
+      for (PortalRecord portal : this.readLegacy()) {
+        loaded.put(Key.of(portal), portal);
+      }
+
+      if (!loaded.isEmpty()) {
+        PortalNetwork.instance
+            .getLogger()
+            .info("Migrating " + loaded.size() + " portals from 'portal-data.yml'");
+      }
+    } else {
+      try {
+        for (PortalRecord portal : this.decode(readFile(this.file.toPath()))) {
+          loaded.put(Key.of(portal), portal);
+        }
+      } catch (NoSuchFileException e) {
+        // only a journal
+      } catch (IOException
+          | BufferUnderflowException
+          | IndexOutOfBoundsException
+          | NegativeArraySizeException
+          | IllegalArgumentException e) {
+        keepDamaged(this.file);
+        PortalNetwork.logWarning(
+            "Failed to load 'portal-data.dat'. A copy has been kept as 'portal-data.dat.bad' but"
+                + " portal data may be lost");
+      }
+
+      try {
+        this.replay(readFile(this.journalFile.toPath()), loaded);
+      } catch (NoSuchFileException e) {
+        // nothing since the snapshot
+      } catch (IOException e) {
+        keepDamaged(this.journalFile);
+        PortalNetwork.logWarning(
+            "Failed to load 'portal-data.log'. A copy has been kept as 'portal-data.log.bad' but"
+                + " recent portal changes may be lost");
+      }
+    }
+
+    // Number portals saved without an id after the highest id in use
+    long nextId = 1;
+    for (PortalRecord portal : loaded.values()) {
+      nextId = Math.max(nextId, portal.id() + 1);
+    }
+
+    // Dials by address are saved as they are until they can be made by id
+    List<PortalRecord> portals = new ArrayList<>(loaded.size());
+    for (PortalRecord portal : loaded.values()) {
+      if (portal.id() == 0) {
+        portal = portal.withId(nextId++);
+      }
+      this.portals.put(portal.id(), portal);
+
+      Integer address = portal.dialledAddress();
+      if (address != null) {
+        this.legacyDials.put(portal.id(), address);
+        portal = portal.withDialled(null);
+      }
+      portals.add(portal);
+    }
+
+    // Rewrite older data in the current format
+    if (this.version < VERSION && (!this.portals.isEmpty() || this.journalFile.exists())) {
+      this.executor.execute(this::compact);
+    }
+    return portals;
+  }
+
+  // Addresses dialled by portals that were saved before dials were stored by id
+  public @NotNull Map<Long, Integer> getLegacyDials() {
+    return this.legacyDials;
+  }
+
+  // Queue a change to portal to be written
+  public void append(@NotNull Op op, @NotNull PortalRecord portal) {
+    this.queue.add(new Change(op, portal));
+    if (this.scheduled.compareAndSet(false, true)) {
+      this.executor.execute(this::commit);
+    }
+  }
+
+  // Finish outstanding writes, waiting at most timeout milliseconds
+  public void close(long timeout) {
+    this.executor.execute(
+        () -> {
+          if (this.journalFile.length() > 0) {
+            this.compact();
+          }
+          this.closeJournal();
+        });
+    this.executor.shutdown();
+    try {
+      if (!this.executor.awaitTermination(timeout, TimeUnit.MILLISECONDS)) {
+        PortalNetwork.logWarning("Timed out saving portal data. Recent changes may be lost");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // Keep a copy of a file that could not be read as it is replaced by the next compaction
+  private static void keepDamaged(@NotNull File file) {
+    Path path = file.toPath();
+    try {
+      Files.copy(
+          path, path.resolveSibling(file.getName() + ".bad"), StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      // ignored
+    }
+  }
+
+  private static @NotNull ByteBuffer readFile(@NotNull Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+      while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+        // keep reading
+      }
+      return buffer.flip();
+    }
+  }
+
+  // Apply journal entries in order, stopping at the first that is incomplete or damaged. Journals
+  // written before they had a version are version 1.
+  private void replay(@NotNull ByteBuffer buffer, @NotNull Map<Key, PortalRecord> loaded)
+      throws IOException {
+    int version = 1;
+    if (buffer.remaining() >= 2 * Integer.BYTES && buffer.getInt(0) == MAGIC) {
+      version = buffer.getInt(Integer.BYTES);
+      if (version < 1 || version > VERSION) {
+        throw new IOException("Unsupported portal journal version " + version);
+      }
+      buffer.position(2 * Integer.BYTES);
+    }
+    int snapshotVersion = this.version;
+    this.version = version;
+
+    CRC32 crc = new CRC32();
+    int count = 0;
+    while (buffer.remaining() >= 2 * Integer.BYTES) {
+      int start = buffer.position();
+      int length = buffer.getInt();
+      int checksum = buffer.getInt();
+      if (length <= 0 || length > buffer.remaining()) {
+        buffer.position(start);
+        break;
+      }
+
+      ByteBuffer entry = buffer.slice(buffer.position(), length);
+      crc.reset();
+      crc.update(entry.duplicate());
+      if ((int) crc.getValue() != checksum) {
+        buffer.position(start);
+        break;
+      }
+      buffer.position(buffer.position() + length);
+
+      try {
+        Op op = Op.values()[entry.get()];
+        PortalRecord portal = this.readChange(entry);
+        if (op == Op.REMOVE) {
+          loaded.remove(Key.of(portal));
+        } else {
+          loaded.put(Key.of(portal), portal);
+        }
+        count++;
+      } catch (IOException
+          | BufferUnderflowException
+          | IndexOutOfBoundsException
+          | NegativeArraySizeException
+          | IllegalArgumentException e) {
+        buffer.position(start);
+        break;
+      }
+    }
+
+    // Anything older than the current version is rewritten after loading
+    this.version = Math.min(snapshotVersion, this.version);
+
+    // Cut off anything that could not be read so new entries follow the last good one
+    if (buffer.hasRemaining()) {
+      PortalNetwork.logWarning(
+          "Ignoring "
+              + buffer.remaining()
+              + " damaged bytes at the end of 'portal-data.log' after "
+              + count
+              + " changes");
+      try (FileChannel channel =
+          FileChannel.open(this.journalFile.toPath(), StandardOpenOption.WRITE)) {
+        channel.truncate(buffer.position());
+      }
+    }
+  }
+
+  // Write every queued change then sync once
+  private void commit() {
+    this.scheduled.set(false);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    ByteArrayOutputStream entry = new ByteArrayOutputStream();
+    DataOutputStream entryOut = new DataOutputStream(entry);
+    CRC32 crc = new CRC32();
+
+    try {
+      Change change;
+      while ((change = this.queue.poll()) != null) {
+        long id = change.portal().id();
+        if (change.op() == Op.REMOVE) {
+          if (this.portals.remove(id) == null) {
+            continue;
+          }
+        } else if (same(this.portals.put(id, change.portal()), change.portal())) {
+          // Nothing changed
+          continue;
+        }
+
+        entry.reset();
+        entryOut.writeByte(change.op().ordinal());
+        writeChange(entryOut, change.portal());
+        crc.reset();
+        crc.update(entry.toByteArray());
+
+        out.writeInt(entry.size());
+        out.writeInt((int) crc.getValue());
+        entry.writeTo(out);
+      }
+
+      if (bytes.size() == 0) {
+        return;
+      }
+
+      if (this.journal == null) {
+        Files.createDirectories(this.journalFile.toPath().getParent());
+        this.journal =
+            FileChannel.open(
+                this.journalFile.toPath(),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+      }
+
+      if (this.journal.size() == 0) {
+        ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES).putInt(MAGIC).putInt(VERSION);
+        header.flip();
+        while (header.hasRemaining()) {
+          this.journal.write(header);
+        }
+      }
+
+      ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+      while (buffer.hasRemaining()) {
+        this.journal.write(buffer);
+      }
+      this.journal.force(false);
+
+      if (this.journal.size() >= COMPACT_SIZE) {
+        this.compact();
+      }
+    } catch (IOException e) {
+      PortalNetwork.logWarning(
+          "Failed to save 'portal-data.log'. Ignoring but portal data may be lost");
+    }
+  }
+
+  // Write a new snapshot and empty the journal. The snapshot is synced before the journal is
+  // deleted, so if this is interrupted between the two the journal is replayed over a snapshot
+  // that already has its changes, which is harmless.
+  private void compact() {
+    try {
+      this.replace(encode(new ArrayList<>(this.portals.values())));
+      this.closeJournal();
+      Files.deleteIfExists(this.journalFile.toPath());
+    } catch (IOException e) {
+      PortalNetwork.logWarning(
+          "Failed to save 'portal-data.dat'. Ignoring but portal data may be lost");
+    }
+  }
+
+  private void closeJournal() {
+    if (this.journal == null) {
+      return;
+    }
+
+    try {
+      this.journal.close();
+    } catch (IOException e) {
+      // ignored
+    }
+    this.journal = null;
+  }
+
+  // Write to a temporary file then move it over the old one so a partial write is never seen
+  private void replace(@NotNull byte[] data) throws IOException {
+    Path target = this.file.toPath();
+    Files.createDirectories(target.getParent());
+    Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+    // Flush the new snapshot to disk before it replaces the old one
+    try (FileChannel channel =
+        FileChannel.open(
+            temp,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer buffer = ByteBuffer.wrap(data);
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(true);
+    }
+    try {
+      Files.move(
+          temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private static boolean same(@Nullable PortalRecord a, @NotNull PortalRecord b) {
+    if (a == null
+        || a.valid() != b.valid()
+        || a.network() != b.network()
+        || a.address() != b.address()
+        || !a.type().equals(b.type())
+        || !Objects.equals(a.dialled(), b.dialled())) {
+      return false;
+    }
+
+    PortalGeometry ga = a.geometry();
+    PortalGeometry gb = b.geometry();
+    if (ga == null || gb == null) {
+      return ga == gb;
+    }
+    return ga.bounds().equals(gb.bounds())
+        && Arrays.equals(ga.frame(), gb.frame())
+        && Arrays.equals(ga.interior(), gb.interior())
+        && Arrays.equals(ga.base(), gb.base());
+  }
+
+  private static @NotNull byte[] encode(@NotNull List<PortalRecord> portals) throws IOException {
+    Map<UUID, Integer> worlds = new LinkedHashMap<>();
+    Map<String, Integer> types = new LinkedHashMap<>();
+    for (PortalRecord portal : portals) {
+      worlds.putIfAbsent(portal.world(), worlds.size());
+      types.putIfAbsent(portal.type(), types.size());
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + portals.size() * 32);
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+
+    out.writeInt(worlds.size());
+    for (UUID world : worlds.keySet()) {
+      writeUuid(out, world);
+    }
+
+    out.writeInt(types.size());
+    for (String type : types.keySet()) {
+      writeString(out, type);
+    }
+
+    out.writeInt(portals.size());
+    for (PortalRecord portal : portals) {
+      out.writeInt(worlds.get(portal.world()));
+      out.writeLong(portal.id());
+      out.writeLong(BlockIndex.key(portal.x(), portal.y(), portal.z()));
+      out.writeShort(types.get(portal.type()));
+      writeState(out, portal);
+    }
+
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  private @NotNull List<PortalRecord> decode(@NotNull ByteBuffer buffer) throws IOException {
+    if (buffer.getInt() != MAGIC) {
+      throw new IOException("Not a portal data file");
+    }
+
+    this.version = buffer.getInt();
+    if (this.version < 1 || this.version > VERSION) {
+      throw new IOException("Unsupported portal data version " + this.version);
+    }
+
+    UUID[] worlds = new UUID[readCount(buffer, 2 * Long.BYTES)];
+    for (int i = 0; i < worlds.length; i++) {
+      worlds[i] = readUuid(buffer);
+    }
+
+    String[] types = new String[readCount(buffer, Short.BYTES)];
+    for (int i = 0; i < types.length; i++) {
+      types[i] = readString(buffer);
+    }
+
+    int count = readCount(buffer, PORTAL_SIZE);
+    List<PortalRecord> portals = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      UUID world = worlds[buffer.getInt()];
+      long id = this.version >= 2 ? buffer.getLong() : 0;
+      long key = buffer.getLong();
+      String type = types[buffer.getShort() & 0xFFFF];
+      portals.add(this.readState(buffer, id, world, key, type));
+    }
+    return portals;
+  }
+
+  // Journal entries carry their world and type rather than referring to a table
+  private static void writeChange(@NotNull DataOutputStream out, @NotNull PortalRecord portal)
+      throws IOException {
+    out.writeLong(portal.id());
+    writeUuid(out, portal.world());
+    out.writeLong(BlockIndex.key(portal.x(), portal.y(), portal.z()));
+    writeString(out, portal.type());
+    writeState(out, portal);
+  }
+
+  private @NotNull PortalRecord readChange(@NotNull ByteBuffer buffer) throws IOException {
+    long id = this.version >= 2 ? buffer.getLong() : 0;
+    UUID world = readUuid(buffer);
+    long key = buffer.getLong();
+    String type = readString(buffer);
+    return this.readState(buffer, id, world, key, type);
+  }
+
+  private static void writeState(@NotNull DataOutputStream out, @NotNull PortalRecord portal)
+      throws IOException {
+    PortalGeometry geometry = portal.geometry();
+    int flags =
+        (portal.valid() ? FLAG_VALID : 0)
+            | (portal.dialled() != null ? FLAG_DIALLED : 0)
+            | (geometry != null ? FLAG_GEOMETRY : 0);
+
+    out.writeByte(flags);
+    // Networks are 8 bits and addresses 4 bits
+    out.writeShort((portal.network() & 0xFF) << 4 | (portal.address() & 0xF));
+
+    if (portal.dialled() != null) {
+      out.writeLong(portal.dialled());
+    }
+
+    if (geometry != null) {
+      PortalBounds bounds = geometry.bounds();
+      out.writeInt(bounds.minX());
+      out.writeInt(bounds.minY());
+      out.writeInt(bounds.minZ());
+      out.writeInt(bounds.maxX());
+      out.writeInt(bounds.maxY());
+      out.writeInt(bounds.maxZ());
+      writeKeys(out, geometry.frame());
+      writeKeys(out, geometry.interior());
+      writeKeys(out, geometry.base());
+    }
+  }
+
+  private @NotNull PortalRecord readState(
+      @NotNull ByteBuffer buffer, long id, @NotNull UUID world, long key, @NotNull String type)
+      throws IOException {
+    int flags = buffer.get();
+    int networkAddress = buffer.getShort();
+    Long dialled = null;
+    if ((flags & FLAG_DIALLED) != 0) {
+      dialled = this.version >= 2 ? buffer.getLong() : PortalRecord.dialByAddress(buffer.get());
+    }
+
+    PortalGeometry geometry = null;
+    if ((flags & FLAG_GEOMETRY) != 0) {
+      PortalBounds bounds =
+          new PortalBounds(
+              buffer.getInt(),
+              buffer.getInt(),
+              buffer.getInt(),
+              buffer.getInt(),
+              buffer.getInt(),
+              buffer.getInt());
+      long[] frame = readKeys(buffer);
+      long[] interior = readKeys(buffer);
+      long[] base = readKeys(buffer);
+      geometry = new PortalGeometry(key, frame, interior, base, bounds);
+    }
+
+    return new PortalRecord(
+        id,
+        world,
+        BlockIndex.keyX(key),
+        BlockIndex.keyY(key),
+        BlockIndex.keyZ(key),
+        type,
+        (flags & FLAG_VALID) != 0,
+        (networkAddress >> 4) & 0xFF,
+        networkAddress & 0xF,
+        dialled,
+        geometry);
+  }
+
+  private static void writeUuid(@NotNull DataOutputStream out, @NotNull UUID uuid)
+      throws IOException {
+    out.writeLong(uuid.getMostSignificantBits());
+    out.writeLong(uuid.getLeastSignificantBits());
+  }
+
+  private static @NotNull UUID readUuid(@NotNull ByteBuffer buffer) {
+    return new UUID(buffer.getLong(), buffer.getLong());
+  }
+
+  private static void writeString(@NotNull DataOutputStream out, @NotNull String string)
+      throws IOException {
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    out.writeShort(bytes.length);
+    out.write(bytes);
+  }
+
+  private static @NotNull String readString(@NotNull ByteBuffer buffer) throws IOException {
+    int length = buffer.getShort() & 0xFFFF;
+    if (length > buffer.remaining()) {
+      throw new IOException("Invalid string length " + length);
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void writeKeys(@NotNull DataOutputStream out, @NotNull long[] keys)
+      throws IOException {
+    out.writeInt(keys.length);
+    for (long key : keys) {
+      out.writeLong(key);
+    }
+  }
+
+  private static @NotNull long[] readKeys(@NotNull ByteBuffer buffer) throws IOException {
+    long[] keys = new long[readCount(buffer, Long.BYTES)];
+    buffer.asLongBuffer().get(keys);
+    buffer.position(buffer.position() + keys.length * Long.BYTES);
+    return keys;
+  }
+
+  // Read a count of elements of at least size bytes each, checking there is room for them before
+  // anything is allocated
+  private static int readCount(@NotNull ByteBuffer buffer, int size) throws IOException {
+    int count = buffer.getInt();
+    if (count < 0 || count > buffer.remaining() / size) {
+      throw new IOException("Invalid count " + count);
+    }
+    return count;
+  }
+
+  private @NotNull List<PortalRecord> readLegacy() {
+    List<PortalRecord> portals = new ArrayList<>();
+    YamlConfiguration portalConfig = new YamlConfiguration();
+    try {
+      portalConfig.load(this.legacy);
+    } catch (FileNotFoundException e) {
+      return portals;
+    } catch (IOException | InvalidConfigurationException e) {
+      PortalNetwork.logWarning(
+          "Failed to load 'portal-data.yml'. Ignoring but portal data may be lost");
+      return portals;
+    }
+
+    ConfigurationSection portalsData = portalConfig.getConfigurationSection("portals");
+    if (portalsData == null) {
+      return portals;
+    }
+
+    for (String key : portalsData.getKeys(false)) {
+      ConfigurationSection portalData = portalsData.getConfigurationSection(key);
+      if (portalData == null) {
+        continue;
+      }
+
+      // Older data stored a serialized Location
+      if (!portalData.contains("world")) {
+        Location location = portalData.getLocation("location");
+        if (location == null || location.getWorld() == null) {
+          PortalNetwork.logWarning("Ignoring portal '" + key + "' in an unknown world");
+          continue;
+        }
+        portalData.set("world", location.getWorld().getUID().toString());
+        portalData.set("x", location.getBlockX());
+        portalData.set("y", location.getBlockY());
+        portalData.set("z", location.getBlockZ());
+      }
+
+      UUID uid;
+      try {
+        uid = UUID.fromString(Objects.requireNonNull(portalData.getString("world")));
+      } catch (IllegalArgumentException | NullPointerException e) {
+        PortalNetwork.logWarning("Ignoring portal '" + key + "' with an invalid world");
+        continue;
+      }
+
+      String type = portalData.getString("portal_type");
+      if (type == null) {
+        PortalNetwork.logWarning("Ignoring portal '" + key + "' with no type");
+        continue;
+      }
+
+      PortalRecord portal =
+          new PortalRecord(
+              0,
+              uid,
+              portalData.getInt("x"),
+              portalData.getInt("y"),
+              portalData.getInt("z"),
+              type,
+              portalData.getBoolean("valid"),
+              0,
+              0,
+              portalData.get("dialled") instanceof Number dialled
+                  ? PortalRecord.dialByAddress(dialled.intValue())
+                  : null,
+              null);
+      portals.add(portal);
+    }
+    return portals;
+  }
+
+  private record Key(UUID world, long block) {
+    static Key of(PortalRecord portal) {
+      return new Key(portal.world(), BlockIndex.key(portal.x(), portal.y(), portal.z()));
+    }
+  }
+
+  private record Change(Op op, PortalRecord portal) {}
+}
@@ -0,0 +1,260 @@
+/*
+ * PortalNetwork - Portals for Players
+ * Copyright (C) 2026 PortalNetwork Developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package au.com.grieve.portalnetwork;
+
+import au.com.grieve.portalnetwork.portals.Portal;
+import au.com.grieve.portalnetwork.portals.PortalBounds;
+import au.com.grieve.portalnetwork.portals.PortalGeometry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// Portals and location index of a single world
+public class PortalWorld {
+  // Chunks within this many blocks of a portal are considered to contain it
+  public static final int CHUNK_MARGIN = 2;
+
+  private final UUID uid;
+
+  // Live portals by id
+  private final Map<Long, Portal> portals = new LinkedHashMap<>();
+
+  // Location Index
+  private final BlockIndex index = new BlockIndex();
+
+  // Portals by the chunks their bounds touch
+  private final ChunkIndex chunks = new ChunkIndex();
+
+  // Keys each portal currently owns in the indexes
+  private final Map<Portal, Footprint> footprints = new HashMap<>();
+
+  // Restored portals waiting for the chunk holding their portal block to load
+  private final Map<Long, List<Portal>> deferred = new HashMap<>();
+
+  public PortalWorld(@NotNull UUID uid) {
+    this.uid = uid;
+  }
+
+  public @NotNull UUID getUid() {
+    return this.uid;
+  }
+
+  public @NotNull Collection<Portal> getPortals() {
+    return this.portals.values();
+  }
+
+  // Return true if portal is live in this world
+  public boolean contains(@NotNull Portal portal) {
+    return this.footprints.containsKey(portal);
+  }
+
+  void addPortal(@NotNull Portal portal) {
+    this.portals.put(portal.getId(), portal);
+  }
+
+  void removePortal(@NotNull Portal portal) {
+    this.portals.remove(portal.getId());
+    this.unindex(portal);
+
+    long chunkKey = chunkKey(portal);
+    List<Portal> waiting = this.deferred.get(chunkKey);
+    if (waiting != null && waiting.remove(portal) && waiting.isEmpty()) {
+      this.deferred.remove(chunkKey);
+    }
+  }
+
+  void defer(@NotNull Portal portal) {
+    this.deferred.computeIfAbsent(chunkKey(portal), k -> new ArrayList<>()).add(portal);
+  }
+
+  // Remove and return portals waiting on a chunk
+  @Nullable List<Portal> undefer(long chunkKey) {
+    return this.deferred.remove(chunkKey);
+  }
+
+  @NotNull Collection<Long> getDeferredChunks() {
+    return this.deferred.keySet();
+  }
+
+  private static long chunkKey(@NotNull Portal portal) {
+    return ChunkIndex.keyForBlock(
+        portal.getLocation().getBlockX(), portal.getLocation().getBlockZ());
+  }
+
+  void reindexPortal(@NotNull Portal portal) {
+    this.unindex(portal);
+
+    PortalGeometry geometry = portal.getGeometry();
+    long[][] blocks = new long[BlockIndex.Role.values().length][];
+    blocks[BlockIndex.Role.BLOCK.ordinal()] = new long[] {geometry.block()};
+    blocks[BlockIndex.Role.FRAME.ordinal()] = geometry.frame();
+    blocks[BlockIndex.Role.PORTAL.ordinal()] = geometry.interior();
+    blocks[BlockIndex.Role.BASE.ordinal()] = geometry.base();
+
+    for (BlockIndex.Role role : BlockIndex.Role.values()) {
+      for (long key : blocks[role.ordinal()]) {
+        this.index.put(key, role, portal);
+      }
+    }
+
+    PortalBounds bounds = geometry.bounds();
+    int minChunkX = (bounds.minX() - CHUNK_MARGIN) >> 4;
+    int maxChunkX = (bounds.maxX() + CHUNK_MARGIN) >> 4;
+    int minChunkZ = (bounds.minZ() - CHUNK_MARGIN) >> 4;
+    int maxChunkZ = (bounds.maxZ() + CHUNK_MARGIN) >> 4;
+
+    long[] chunkKeys = new long[(maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1)];
+    int i = 0;
+    for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+      for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+        chunkKeys[i] = ChunkIndex.key(chunkX, chunkZ);
+        this.chunks.add(chunkKeys[i++], portal);
+      }
+    }
+
+    this.footprints.put(portal, new Footprint(blocks, chunkKeys));
+  }
+
+  // Remove exactly the keys portal was last indexed under
+  private void unindex(@NotNull Portal portal) {
+    Footprint footprint = this.footprints.remove(portal);
+    if (footprint == null) {
+      return;
+    }
+
+    for (BlockIndex.Role role : BlockIndex.Role.values()) {
+      for (long key : footprint.blocks()[role.ordinal()]) {
+        this.index.remove(key, role, portal);
+      }
+    }
+
+    for (long key : footprint.chunks()) {
+      this.chunks.remove(key, portal);
+    }
+  }
+
+  // Return true if a portal may be within CHUNK_MARGIN blocks of this block column
+  public boolean isNearPortal(int blockX, int blockZ) {
+    return this.chunks.contains(ChunkIndex.keyForBlock(blockX, blockZ));
+  }
+
+  // Get portal owning block as a frame, portal or base
+  public @Nullable Portal find(int x, int y, int z, @Nullable Boolean valid) {
+    Portal portal = this.index.get(BlockIndex.key(x, y, z));
+
+    if (portal != null) {
+      if (valid == null || valid == portal.isValid()) {
+        return portal;
+      }
+    }
+    return null;
+  }
+
+  // Get a portal whose bounds are within distance of block
+  public @Nullable Portal findNear(int x, int y, int z, int distance, @Nullable Boolean valid) {
+    if (distance <= CHUNK_MARGIN) {
+      return this.findNear(ChunkIndex.keyForBlock(x, z), x, y, z, distance, valid);
+    }
+
+    for (int chunkX = (x - distance) >> 4; chunkX <= (x + distance) >> 4; chunkX++) {
+      for (int chunkZ = (z - distance) >> 4; chunkZ <= (z + distance) >> 4; chunkZ++) {
+        Portal portal = this.findNear(ChunkIndex.key(chunkX, chunkZ), x, y, z, distance, valid);
+        if (portal != null) {
+          return portal;
+        }
+      }
+    }
+    return null;
+  }
+
+  private @Nullable Portal findNear(
+      long chunkKey, int x, int y, int z, int distance, @Nullable Boolean valid) {
+    Portal[] bucket = this.chunks.get(chunkKey);
+    if (bucket == null) {
+      return null;
+    }
+
+    for (Portal portal : bucket) {
+      if (valid != null && valid != portal.isValid()) {
+        continue;
+      }
+
+      if (portal.getBounds().contains(x, y, z, distance)) {
+        return portal;
+      }
+    }
+    return null;
+  }
+
+  // Get a portal whose interior is passed through moving from one point to another. Only the
+  // chunks at each end are checked which covers anything moving less than a chunk a tick.
+  public @Nullable Portal findCrossing(
+      double fromX, double fromY, double fromZ, double toX, double toY, double toZ) {
+    long fromChunk = ChunkIndex.keyForBlock((int) Math.floor(fromX), (int) Math.floor(fromZ));
+    long toChunk = ChunkIndex.keyForBlock((int) Math.floor(toX), (int) Math.floor(toZ));
+
+    Portal portal = this.findCrossing(fromChunk, fromX, fromY, fromZ, toX, toY, toZ);
+    if (portal == null && toChunk != fromChunk) {
+      portal = this.findCrossing(toChunk, fromX, fromY, fromZ, toX, toY, toZ);
+    }
+    return portal;
+  }
+
+  private @Nullable Portal findCrossing(
+      long chunkKey,
+      double fromX,
+      double fromY,
+      double fromZ,
+      double toX,
+      double toY,
+      double toZ) {
+    Portal[] bucket = this.chunks.get(chunkKey);
+    if (bucket == null) {
+      return null;
+    }
+
+    for (Portal portal : bucket) {
+      if (portal.isCrossedBy(fromX, fromY, fromZ, toX, toY, toZ)) {
+        return portal;
+      }
+    }
+    return null;
+  }
+
+  // Get portal owning block in a specific role
+  public @Nullable Portal find(
+      int x, int y, int z, @NotNull BlockIndex.Role role, @Nullable Boolean valid) {
+    Portal portal = this.index.get(BlockIndex.key(x, y, z), role);
+
+    if (portal != null) {
+      if (valid == null || valid == portal.isValid()) {
+        return portal;
+      }
+    }
+    return null;
+  }
+
+  private record Footprint(long[][] blocks, long[] chunks) {}
+}
@@ -0,0 +1,234 @@
+/*
+ * PortalNetwork - Portals for Players
+ * Copyright (C) 2026 PortalNetwork Developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package au.com.grieve.portalnetwork;
+
+import au.com.grieve.portalnetwork.portals.Portal;
+import au.com.grieve.portalnetwork.portals.PortalBounds;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Item;
+import org.bukkit.entity.Mob;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Vehicle;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.util.BoundingBox;
+import org.bukkit.util.Vector;
+import org.jetbrains.annotations.NotNull;
+
+// Tracks entities near dialled portals, checking only those for crossings each tick so move
+// events never need to be listened to. Entities over the per tick limits stay where they are and
+// go through on a later tick.
+public class ProximityTracker implements TeleportEngine {
+  private final Predicate<Entity> filter;
+  private final double radius;
+  private final int interval;
+  private final int perPortal;
+  private final int perTick;
+
+  // Entities near a dialled portal and where they were last tick
+  private Map<Entity, Candidate> candidates = new HashMap<>();
+  private final Cooldowns cooldowns = new Cooldowns();
+
+  // Entities sent through each portal this tick
+  private final Map<Portal, Integer> sent = new HashMap<>();
+
+  private BukkitTask task;
+  private int ticks;
+
+  public ProximityTracker(
+      @NotNull Predicate<Entity> filter, double radius, int interval, int perPortal, int perTick) {
+    this.filter = filter;
+    this.radius = radius;
+    this.interval = Math.max(1, interval);
+    this.perPortal = Math.max(1, perPortal);
+    this.perTick = Math.max(1, perTick);
+  }
+
+  // Players and vehicles with no limits. Riding players go through with their vehicle.
+  public static @NotNull ProximityTracker players(double radius, int interval) {
+    return new ProximityTracker(
+        entity ->
+            entity instanceof Vehicle || (entity instanceof Player && !entity.isInsideVehicle()),
+        radius,
+        interval,
+        Integer.MAX_VALUE,
+        Integer.MAX_VALUE);
+  }
+
+  // Dropped items and mobs that are not riding or being ridden. Rideable mobs are vehicles and go
+  // through with the players.
+  public static @NotNull ProximityTracker entities(
+      double radius, int interval, int perPortal, int perTick) {
+    return new ProximityTracker(
+        entity ->
+            (entity instanceof Item || entity instanceof Mob)
+                && !(entity instanceof Vehicle)
+                && !entity.isInsideVehicle()
+                && entity.getPassengers().isEmpty(),
+        radius,
+        interval,
+        perPortal,
+        perTick);
+  }
+
+  @Override
+  public void start() {
+    if (this.task != null) {
+      return;
+    }
+
+    this.ticks = 0;
+    this.task =
+        new BukkitRunnable() {
+          @Override
+          public void run() {
+            ProximityTracker.this.tick();
+          }
+        }.runTaskTimer(PortalNetwork.instance, 1, 1);
+  }
+
+  @Override
+  public void stop() {
+    if (this.task != null) {
+      this.task.cancel();
+      this.task = null;
+    }
+    this.candidates.clear();
+    this.cooldowns.clear();
+  }
+
+  private void tick() {
+    if (this.ticks++ % this.interval == 0) {
+      this.refresh();
+    }
+
+    int budget = this.perTick;
+    this.sent.clear();
+
+    Iterator<Candidate> iterator = this.candidates.values().iterator();
+    while (iterator.hasNext()) {
+      Candidate candidate = iterator.next();
+      Entity entity = candidate.entity;
+      if (!entity.isValid() || entity.getWorld() != candidate.world) {
+        iterator.remove();
+        continue;
+      }
+
+      double x = entity.getX();
+      double y = entity.getY();
+      double z = entity.getZ();
+      if (!this.cooldowns.isCoolingDown(entity)
+          && candidate.portal.isCrossedBy(candidate.x, candidate.y, candidate.z, x, y, z)) {
+        // Over the limit or not ready so keep the old position and try again next tick
+        int count = this.sent.getOrDefault(candidate.portal, 0);
+        if (budget <= 0
+            || count >= this.perPortal
+            || !this.teleport(
+                candidate.portal,
+                entity,
+                new Location(candidate.world, candidate.x, candidate.y, candidate.z),
+                new Vector(x - candidate.x, y - candidate.y, z - candidate.z))) {
+          continue;
+        }
+
+        budget--;
+        this.sent.put(candidate.portal, count + 1);
+        iterator.remove();
+        this.cooldowns.add(entity, 2, MoveEvents.COOLDOWN_TICKS);
+        continue;
+      }
+
+      candidate.x = x;
+      candidate.y = y;
+      candidate.z = z;
+    }
+  }
+
+  // Return true if entity was sent through portal
+  private boolean teleport(
+      @NotNull Portal portal,
+      @NotNull Entity entity,
+      @NotNull Location from,
+      @NotNull Vector movement) {
+    if (entity instanceof Player player) {
+      return portal.teleportPlayer(player, from, movement);
+    } else if (entity instanceof Vehicle) {
+      return portal.teleportVehicle(entity, from, movement);
+    }
+    return portal.teleportEntity(entity, from, movement);
+  }
+
+  // Rebuild candidates from the entities around each dialled portal
+  private void refresh() {
+    Map<Entity, Candidate> candidates = new HashMap<>();
+    for (Portal portal : PortalNetwork.manager.getDialled()) {
+      World world = portal.getLocation().getWorld();
+      if (world == null) {
+        continue;
+      }
+
+      PortalBounds bounds = portal.getBounds();
+      BoundingBox box =
+          new BoundingBox(
+              bounds.minX() - this.radius,
+              bounds.minY() - this.radius,
+              bounds.minZ() - this.radius,
+              bounds.maxX() + 1 + this.radius,
+              bounds.maxY() + 1 + this.radius,
+              bounds.maxZ() + 1 + this.radius);
+
+      for (Entity entity : world.getNearbyEntities(box)) {
+        if (!this.filter.test(entity)) {
+          continue;
+        }
+
+        Candidate candidate = this.candidates.get(entity);
+        if (candidate == null) {
+          candidate = new Candidate(entity, world);
+        }
+        candidate.portal = portal;
+        candidates.put(entity, candidate);
+      }
+    }
+    this.candidates = candidates;
+  }
+
+  private static class Candidate {
+    final Entity entity;
+    final World world;
+    Portal portal;
+    double x;
+    double y;
+    double z;
+
+    Candidate(@NotNull Entity entity, @NotNull World world) {
+      this.entity = entity;
+      this.world = world;
+      this.x = entity.getX();
+      this.y = entity.getY();
+      this.z = entity.getZ();
+    }
+  }
+}
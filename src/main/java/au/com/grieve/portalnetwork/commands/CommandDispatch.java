@@ -30,16 +30,17 @@ import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
 public class CommandDispatch extends Command {
-  private static final Map<String, SimpleCommand> commands = new HashMap<>(2);
+  private static final Map<String, SimpleCommand> commands = new HashMap<>(3);
 
   public CommandDispatch() {
     super(
         "pn",
-        "/pn <give|list|reload> [args]",
+        "/pn <give|list|stats|reload> [args]",
         "A portal system that allows players to create portals that can dial each other",
         List.of());
     commands.put("give", new GiveCommand());
     commands.put("list", new ListCommand());
+    commands.put("stats", new StatsCommand());
   }
 
   @Override
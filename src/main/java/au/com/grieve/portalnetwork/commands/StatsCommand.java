@@ -0,0 +1,89 @@
+/*
+ * PortalNetwork - Portals for Players
+ * Copyright (C) 2024 PortalNetwork Developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package au.com.grieve.portalnetwork.commands;
+
+import au.com.grieve.portalnetwork.BlockIndex;
+import au.com.grieve.portalnetwork.PortalNetwork;
+import au.com.grieve.portalnetwork.portals.Portal;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.jetbrains.annotations.NotNull;
+
+// Counts of portals and the blocks they have drawn. END_GATEWAY blocks are ticking block entities
+// so their count can be compared against server tick times when choosing render.mode.
+public class StatsCommand implements SimpleCommand {
+  @Override
+  public void execute(@NotNull CommandSender sender, @NotNull String[] args) throws CommandError {
+    if (args.length != 0) {
+      throw new CommandError("Unexpected argument(s)");
+    }
+
+    int total = 0;
+    int valid = 0;
+    int dialled = 0;
+    Map<Material, Integer> interior = new EnumMap<>(Material.class);
+
+    for (Portal portal : PortalNetwork.manager.getPortals()) {
+      total++;
+      if (!portal.isValid()) {
+        continue;
+      }
+      valid++;
+
+      World world = portal.getLocation().getWorld();
+      if (portal.getDialledPortal() == null || world == null) {
+        continue;
+      }
+      dialled++;
+
+      // Blocks in unloaded chunks are not counted rather than loading them
+      for (long key : portal.getGeometry().interior()) {
+        int x = BlockIndex.keyX(key);
+        int z = BlockIndex.keyZ(key);
+        if (!world.isChunkLoaded(x >> 4, z >> 4)) {
+          continue;
+        }
+
+        Material type = world.getBlockAt(x, BlockIndex.keyY(key), z).getType();
+        if (type != Material.AIR) {
+          interior.merge(type, 1, Integer::sum);
+        }
+      }
+    }
+
+    sender.sendRichMessage(
+        "<yellow>Portals: <white>" + total + " (" + valid + " valid, " + dialled + " dialled)");
+    sender.sendRichMessage(
+        "<yellow>Render mode: <white>"
+            + PortalNetwork.instance.getConfig().getString("render.mode", "world"));
+    for (Map.Entry<Material, Integer> entry : interior.entrySet()) {
+      sender.sendRichMessage(
+          "<yellow>" + entry.getKey().name().toLowerCase() + ": <white>" + entry.getValue());
+    }
+  }
+
+  @Override
+  public List<String> complete(@NotNull String[] args) {
+    return List.of();
+  }
+}
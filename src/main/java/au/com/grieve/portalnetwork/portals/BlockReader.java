@@ -0,0 +1,61 @@
+/*
+ * PortalNetwork - Portals for Players
+ * Copyright (C) 2026 PortalNetwork Developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package au.com.grieve.portalnetwork.portals;
+
+import au.com.grieve.portalnetwork.ChunkIndex;
+import java.util.HashMap;
+import java.util.Map;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+
+// Source of block types for shape detection. A world reader must only be used on the main thread
+// while a snapshot reader can be used from any thread.
+@FunctionalInterface
+public interface BlockReader {
+  @NotNull Material getType(int x, int y, int z);
+
+  static @NotNull BlockReader of(@NotNull World world) {
+    return (x, y, z) -> world.getBlockAt(x, y, z).getType();
+  }
+
+  // Capture every chunk within radius blocks of x and z. Must be called on the main thread.
+  static @NotNull BlockReader snapshot(@NotNull World world, int x, int z, int radius) {
+    Map<Long, ChunkSnapshot> snapshots = new HashMap<>();
+    for (int chunkX = (x - radius) >> 4; chunkX <= (x + radius) >> 4; chunkX++) {
+      for (int chunkZ = (z - radius) >> 4; chunkZ <= (z + radius) >> 4; chunkZ++) {
+        snapshots.put(
+            ChunkIndex.key(chunkX, chunkZ),
+            world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false));
+      }
+    }
+
+    // Outside the world's height is air, as it is when read from the world
+    int minY = world.getMinHeight();
+    int maxY = world.getMaxHeight();
+    return (blockX, blockY, blockZ) -> {
+      ChunkSnapshot snapshot = snapshots.get(ChunkIndex.keyForBlock(blockX, blockZ));
+      if (snapshot == null || blockY < minY || blockY >= maxY) {
+        return Material.AIR;
+      }
+      return snapshot.getBlockType(blockX & 15, blockY, blockZ & 15);
+    };
+  }
+}
@@ -0,0 +1,248 @@
+/*
+ * PortalNetwork - Portals for Players
+ * Copyright (C) 2026 PortalNetwork Developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package au.com.grieve.portalnetwork.portals;
+
+import au.com.grieve.portalnetwork.BlockIndex;
+import au.com.grieve.portalnetwork.PortalNetwork;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.BlockState;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+
+// Shows portal frames and interiors to nearby players only. The world keeps just the structure
+// the players built.
+public class ClientRenderer implements PortalRenderer {
+  // How often viewers are added and removed as they move
+  private static final int SWEEP_TICKS = 10;
+
+  private final int distanceSquared;
+
+  // What each active portal shows and who is seeing it
+  private final Map<Portal, View> views = new HashMap<>();
+  private BukkitTask task;
+
+  public ClientRenderer(int distance) {
+    this.distanceSquared = distance * distance;
+  }
+
+  @Override
+  public void render(@NotNull Portal portal) {
+    World world = portal.location.getWorld();
+    if (world == null) {
+      return;
+    }
+
+    View old = this.views.remove(portal);
+    List<BlockChange> blocks = portal.view(world);
+
+    View view = null;
+    if (!blocks.isEmpty()) {
+      List<BlockState> states = new ArrayList<>(blocks.size());
+      for (BlockChange change : blocks) {
+        BlockState state = Portal.getBlock(world, change.key()).getState();
+        state.setBlockData(change.data());
+        states.add(state);
+      }
+      view = new View(portal, world, states, new HashSet<>());
+      this.views.put(portal, view);
+    }
+
+    // Put back real blocks that are no longer shown
+    if (old != null) {
+      Set<Long> shown = new HashSet<>();
+      if (view != null) {
+        for (BlockChange change : blocks) {
+          shown.add(change.key());
+        }
+      }
+
+      List<BlockState> restore = new ArrayList<>();
+      for (BlockState state : old.states()) {
+        if (!shown.contains(getKey(state))) {
+          restore.add(state.getBlock().getState());
+        }
+      }
+
+      for (UUID uid : old.viewers()) {
+        Player player = Bukkit.getPlayer(uid);
+        if (player == null || player.getWorld() != world) {
+          continue;
+        }
+        if (view != null) {
+          view.viewers().add(uid);
+        }
+        if (!restore.isEmpty()) {
+          player.sendBlockChanges(restore);
+        }
+      }
+    }
+
+    if (view == null) {
+      return;
+    }
+
+    for (Player player : world.getPlayers()) {
+      if (view.viewers().contains(player.getUniqueId()) || this.inRange(view, player)) {
+        view.viewers().add(player.getUniqueId());
+        player.sendBlockChanges(view.states());
+      }
+    }
+    this.start();
+  }
+
+  // Nothing is queued as packets are sent straight away
+  @Override
+  public boolean isPending(@NotNull Portal portal) {
+    return false;
+  }
+
+  @Override
+  public void flush() {
+    if (this.task != null) {
+      this.task.cancel();
+      this.task = null;
+    }
+    this.views.clear();
+  }
+
+  // Chunk data replaces anything we sent so resend portals that touch it
+  @Override
+  public void sendChunk(@NotNull Player player, @NotNull Chunk chunk) {
+    for (View view : this.views.values()) {
+      if (view.world() != chunk.getWorld() || !this.inRange(view, player)) {
+        continue;
+      }
+
+      PortalBounds bounds = view.portal().getBounds();
+      if (bounds.maxX() >> 4 < chunk.getX()
+          || bounds.minX() >> 4 > chunk.getX()
+          || bounds.maxZ() >> 4 < chunk.getZ()
+          || bounds.minZ() >> 4 > chunk.getZ()) {
+        continue;
+      }
+
+      view.viewers().add(player.getUniqueId());
+      player.sendBlockChanges(view.states());
+    }
+  }
+
+  @Override
+  public void addViewer(@NotNull Player player) {
+    for (View view : this.views.values()) {
+      if (view.world() == player.getWorld() && this.inRange(view, player)) {
+        view.viewers().add(player.getUniqueId());
+        player.sendBlockChanges(view.states());
+      }
+    }
+  }
+
+  @Override
+  public void removeViewer(@NotNull Player player) {
+    for (View view : this.views.values()) {
+      view.viewers().remove(player.getUniqueId());
+    }
+  }
+
+  private boolean inRange(@NotNull View view, @NotNull Player player) {
+    Location portal = view.portal().location;
+    Location location = player.getLocation();
+    double dx = location.getX() - portal.getX();
+    double dz = location.getZ() - portal.getZ();
+    return dx * dx + dz * dz <= this.distanceSquared;
+  }
+
+  private static long getKey(@NotNull BlockState state) {
+    Location location = state.getLocation();
+    return BlockIndex.key(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+  }
+
+  private void start() {
+    if (this.task != null) {
+      return;
+    }
+
+    this.task =
+        new BukkitRunnable() {
+          @Override
+          public void run() {
+            ClientRenderer.this.sweep();
+          }
+        }.runTaskTimer(PortalNetwork.instance, SWEEP_TICKS, SWEEP_TICKS);
+  }
+
+  // Show portals to players that have come in range and restore them for players that left
+  private void sweep() {
+    Iterator<View> views = this.views.values().iterator();
+    while (views.hasNext()) {
+      View view = views.next();
+      if (Bukkit.getWorld(view.world().getUID()) == null) {
+        views.remove();
+        continue;
+      }
+
+      // Players that changed world no longer need restoring
+      view.viewers()
+          .removeIf(
+              uid -> {
+                Player player = Bukkit.getPlayer(uid);
+                return player == null || player.getWorld() != view.world();
+              });
+
+      for (Player player : view.world().getPlayers()) {
+        boolean viewing = view.viewers().contains(player.getUniqueId());
+        boolean inRange = this.inRange(view, player);
+        if (inRange && !viewing) {
+          view.viewers().add(player.getUniqueId());
+          player.sendBlockChanges(view.states());
+        } else if (!inRange && viewing) {
+          view.viewers().remove(player.getUniqueId());
+          List<BlockState> restore = new ArrayList<>(view.states().size());
+          for (BlockState state : view.states()) {
+            restore.add(state.getBlock().getState());
+          }
+          player.sendBlockChanges(restore);
+        }
+      }
+    }
+
+    if (this.views.isEmpty() && this.task != null) {
+      this.task.cancel();
+      this.task = null;
+    }
+  }
+
+  private record View(
+      @NotNull Portal portal,
+      @NotNull World world,
+      @NotNull List<BlockState> states,
+      @NotNull Set<UUID> viewers) {}
+}
@@ -18,17 +18,14 @@
 
 package au.com.grieve.portalnetwork.portals;
 
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import org.bukkit.Axis;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.EndGateway;
-import org.bukkit.block.data.Orientable;
-import org.bukkit.util.BlockVector;
+import org.bukkit.block.data.BlockData;
 import org.jetbrains.annotations.NotNull;
 
 public class EndPortal extends Portal {
@@ -40,8 +37,8 @@ public class EndPortal extends Portal {
               'E', Material.END_STONE,
               'P', Material.ENDER_PEARL));
 
-  public EndPortal(@NotNull Location location) {
-    super("end", location);
+  public EndPortal(long id, @NotNull Location location) {
+    super(id, "end", location);
   }
 
   // Activate Portal using type of portal as to what is seen/heard
@@ -52,46 +49,7 @@ public class EndPortal extends Portal {
     }
 
     updateBlock();
-
-    // Draw frame
-    for (Iterator<BlockVector> it = getPortalFrameIterator(); it.hasNext(); ) {
-      BlockVector loc = it.next();
-      Block block = loc.toLocation(this.location.getWorld()).getBlock();
-      if (block.getType() != Material.AIR && !GLASS_MAPPINGS.contains(block.getType())) {
-        continue;
-      }
-
-      block.setType(GLASS_MAPPINGS.get(this.dialledPortal.getAddress()));
-    }
-
-    for (Iterator<BlockVector> it = getPortalIterator(); it.hasNext(); ) {
-      BlockVector loc = it.next();
-      Block block = loc.toLocation(this.location.getWorld()).getBlock();
-
-      if (block.getType() != Material.AIR) {
-        continue;
-      }
-
-      // Ugly hack. If we are in THE END we will display as Nether instead
-      if (this.location.getWorld().getEnvironment() == World.Environment.THE_END) {
-        block.setType(Material.NETHER_PORTAL);
-
-        Orientable bd = (Orientable) block.getBlockData();
-        if (this.left.getX() == 0) {
-          bd.setAxis(Axis.Z);
-        } else {
-          bd.setAxis(Axis.X);
-        }
-        block.setBlockData(bd);
-      } else {
-        block.setType(Material.END_GATEWAY);
-
-        EndGateway eg = (EndGateway) block.getState();
-        eg.setAge(-100000000);
-        eg.update();
-      }
-    }
-
+    this.render();
     this.playStartSound(this.location);
   }
 
@@ -102,29 +60,36 @@ public class EndPortal extends Portal {
       return;
     }
 
-    for (Iterator<BlockVector> it = getPortalIterator(); it.hasNext(); ) {
-      BlockVector loc = it.next();
-      Block block = loc.toLocation(this.location.getWorld()).getBlock();
-      if (block.getType() != Material.END_GATEWAY && block.getType() != Material.NETHER_PORTAL) {
-        continue;
-      }
+    this.render();
+    updateBlock();
+    this.playStopSound(this.location);
+  }
 
-      block.setType(Material.AIR);
+  @Override
+  protected @NotNull BlockData getInteriorData(@NotNull World world) {
+    // Ugly hack. If we are in THE END we will display as Nether instead
+    if (world.getEnvironment() == World.Environment.THE_END) {
+      return PortalBlocks.netherPortal(this);
     }
+    return PortalBlocks.END_GATEWAY;
+  }
 
-    // Remove frame
-    for (Iterator<BlockVector> it = getPortalFrameIterator(); it.hasNext(); ) {
-      BlockVector loc = it.next();
-      Block block = loc.toLocation(this.location.getWorld()).getBlock();
-      if (!GLASS_MAPPINGS.contains(block.getType())) {
-        continue;
-      }
+  // End portal blocks are still recognised so interiors drawn with them by older versions are
+  // cleared
+  @Override
+  protected boolean isInteriorMaterial(@NotNull Material material) {
+    return material == Material.END_GATEWAY
+        || material == Material.END_PORTAL
+        || material == Material.NETHER_PORTAL;
+  }
 
-      block.setType(Material.AIR);
+  @Override
+  protected void setBlock(@NotNull Block block, @NotNull BlockData data) {
+    super.setBlock(block, data);
+    if (data.getMaterial() == Material.END_GATEWAY) {
+      EndGateway eg = (EndGateway) block.getState();
+      eg.setAge(-100000000);
+      eg.update(false, false);
     }
-
-    updateBlock();
-
-    this.playStopSound(this.location);
   }
 }
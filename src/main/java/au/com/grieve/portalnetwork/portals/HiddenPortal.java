@@ -18,13 +18,10 @@
 
 package au.com.grieve.portalnetwork.portals;
 
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.block.Block;
-import org.bukkit.util.BlockVector;
 import org.jetbrains.annotations.NotNull;
 
 public class HiddenPortal extends Portal {
@@ -36,8 +33,8 @@ public class HiddenPortal extends Portal {
               'O', Material.OBSIDIAN,
               'P', Material.ENDER_PEARL));
 
-  public HiddenPortal(@NotNull Location location) {
-    super("hidden", location);
+  public HiddenPortal(long id, @NotNull Location location) {
+    super(id, "hidden", location);
   }
 
   // Activate Portal using type of portal as to what is seen/heard
@@ -48,18 +45,7 @@ public class HiddenPortal extends Portal {
     }
 
     updateBlock();
-
-    // Draw frame
-    for (Iterator<BlockVector> it = getPortalFrameIterator(); it.hasNext(); ) {
-      BlockVector loc = it.next();
-      Block block = loc.toLocation(this.location.getWorld()).getBlock();
-      if (block.getType() != Material.AIR && !GLASS_MAPPINGS.contains(block.getType())) {
-        continue;
-      }
-
-      block.setType(GLASS_MAPPINGS.get(dialledPortal.getAddress()));
-    }
-
+    this.render();
     this.playStartSound(this.location);
   }
 
@@ -70,19 +56,8 @@ public class HiddenPortal extends Portal {
       return;
     }
 
-    // Remove frame
-    for (Iterator<BlockVector> it = getPortalFrameIterator(); it.hasNext(); ) {
-      BlockVector loc = it.next();
-      Block block = loc.toLocation(this.location.getWorld()).getBlock();
-      if (!GLASS_MAPPINGS.contains(block.getType())) {
-        continue;
-      }
-
-      block.setType(Material.AIR);
-    }
-
+    this.render();
     updateBlock();
-
     this.playStopSound(this.location);
   }
 }
@@ -18,15 +18,12 @@
 
 package au.com.grieve.portalnetwork.portals;
 
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import org.bukkit.Axis;
 import org.bukkit.Location;
 import org.bukkit.Material;
-import org.bukkit.block.Block;
-import org.bukkit.block.data.Orientable;
-import org.bukkit.util.BlockVector;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
 import org.jetbrains.annotations.NotNull;
 
 public class NetherPortal extends Portal {
@@ -38,8 +35,8 @@ public class NetherPortal extends Portal {
               'O', Material.OBSIDIAN,
               'P', Material.ENDER_PEARL));
 
-  public NetherPortal(@NotNull Location location) {
-    super("nether", location);
+  public NetherPortal(long id, @NotNull Location location) {
+    super(id, "nether", location);
   }
 
   // Activate Portal using type of portal as to what is seen/heard
@@ -50,35 +47,7 @@ public class NetherPortal extends Portal {
     }
 
     updateBlock();
-
-    // Draw frame
-    for (Iterator<BlockVector> it = getPortalFrameIterator(); it.hasNext(); ) {
-      BlockVector loc = it.next();
-      Block block = loc.toLocation(this.location.getWorld()).getBlock();
-      if (block.getType() != Material.AIR && !GLASS_MAPPINGS.contains(block.getType())) {
-        continue;
-      }
-
-      block.setType(GLASS_MAPPINGS.get(dialledPortal.getAddress()));
-    }
-
-    for (Iterator<BlockVector> it = getPortalIterator(); it.hasNext(); ) {
-      BlockVector loc = it.next();
-      Block block = loc.toLocation(this.location.getWorld()).getBlock();
-      if (block.getType() != Material.AIR) {
-        continue;
-      }
-
-      block.setType(Material.NETHER_PORTAL);
-      Orientable bd = (Orientable) block.getBlockData();
-      if (this.left.getX() == 0) {
-        bd.setAxis(Axis.Z);
-      } else {
-        bd.setAxis(Axis.X);
-      }
-      block.setBlockData(bd);
-    }
-
+    this.render();
     this.playStartSound(this.location);
   }
 
@@ -89,29 +58,18 @@ public class NetherPortal extends Portal {
       return;
     }
 
-    for (Iterator<BlockVector> it = getPortalIterator(); it.hasNext(); ) {
-      BlockVector loc = it.next();
-      Block block = loc.toLocation(this.location.getWorld()).getBlock();
-      if (block.getType() != Material.NETHER_PORTAL) {
-        continue;
-      }
-
-      block.setType(Material.AIR);
-    }
-
-    // Remove frame
-    for (Iterator<BlockVector> it = getPortalFrameIterator(); it.hasNext(); ) {
-      BlockVector loc = it.next();
-      Block block = loc.toLocation(this.location.getWorld()).getBlock();
-      if (!GLASS_MAPPINGS.contains(block.getType())) {
-        continue;
-      }
-
-      block.setType(Material.AIR);
-    }
-
+    this.render();
     updateBlock();
-
     this.playStopSound(this.location);
   }
+
+  @Override
+  protected @NotNull BlockData getInteriorData(@NotNull World world) {
+    return PortalBlocks.netherPortal(this);
+  }
+
+  @Override
+  protected boolean isInteriorMaterial(@NotNull Material material) {
+    return material == Material.NETHER_PORTAL;
+  }
 }
@@ -18,19 +18,20 @@
 
 package au.com.grieve.portalnetwork.portals;
 
+import au.com.grieve.portalnetwork.BlockIndex;
 import au.com.grieve.portalnetwork.PortalNetwork;
-import com.google.common.collect.Streams;
+import au.com.grieve.portalnetwork.PortalStore;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Iterator;
 import java.util.List;
-import java.util.NoSuchElementException;
 import java.util.StringJoiner;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.bukkit.Sound;
-import org.bukkit.Tag;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.Orientable;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.block.BlockBreakEvent;
@@ -49,6 +50,9 @@ public abstract class Portal {
   public static final NamespacedKey PortalTypeKey =
       new NamespacedKey(PortalNetwork.instance, "portal_type");
 
+  // Ticks to wait after a block changes before checking the portal again
+  static final int REVALIDATE_DELAY = 3;
+
   static final List<Material> WOOL_MAPPINGS =
       List.of(
           Material.WHITE_WOOL,
@@ -86,6 +90,8 @@ public abstract class Portal {
           Material.RED_STAINED_GLASS,
           Material.BLACK_STAINED_GLASS);
 
+  // Stable identifier assigned when the portal is first created
+  final long id;
   final String type;
   final Location location;
   Integer network;
@@ -94,19 +100,28 @@ public abstract class Portal {
   boolean valid = false;
   BlockVector left;
   BlockVector right;
+  PortalGeometry geometry;
   Portal dialledPortal;
 
-  public Portal(@NotNull String type, @NotNull Location location) {
+  // Bumped on every update so stale asynchronous results are dropped
+  int revision;
+
+  public Portal(long id, @NotNull String type, @NotNull Location location) {
+    this.id = id;
     this.type = type;
     this.location = location;
-    this.update();
+    this.geometry =
+        PortalGeometry.of(location.getBlockX(), location.getBlockY(), location.getBlockZ());
   }
 
   public abstract void activate();
 
   public abstract void deactivate();
 
-  // Load configuration from manager for this portal type
+  public long getId() {
+    return this.id;
+  }
+
   public Location getLocation() {
     return this.location.clone();
   }
@@ -134,45 +149,90 @@ public abstract class Portal {
     }
   }
 
-  // Update Portal
+  // Update Portal reading blocks directly from the world
   public void update() {
-    // Check that wool only appears on 3 sides
-    List<Location> blocks =
-        Arrays.asList(
-            this.location.clone().add(1, 0, 0),
-            this.location.clone().add(0, 0, 1),
-            this.location.clone().add(-1, 0, 0),
-            this.location.clone().add(0, 0, -1));
-
-    int count = 0;
-    int nonIdx = -1;
-
-    for (int idx = 0; idx < blocks.size(); idx++) {
-      if (Tag.WOOL.isTagged(blocks.get(idx).getBlock().getType())) {
-        count += 1;
-      } else {
-        nonIdx = idx;
+    this.revision++;
+    this.apply(
+        PortalShape.detect(
+            BlockReader.of(this.location.getWorld()),
+            this.location.getBlockX(),
+            this.location.getBlockY(),
+            this.location.getBlockZ()));
+  }
+
+  // Update Portal detecting its shape from chunk snapshots on a worker thread. The result is
+  // applied on the main thread unless the portal was updated again or removed in the meantime.
+  public void updateAsync() {
+    int x = this.location.getBlockX();
+    int y = this.location.getBlockY();
+    int z = this.location.getBlockZ();
+    BlockReader reader = BlockReader.snapshot(this.location.getWorld(), x, z, PortalShape.REACH);
+    int revision = ++this.revision;
+
+    new BukkitRunnable() {
+      @Override
+      public void run() {
+        PortalShape shape = PortalShape.detect(reader, x, y, z);
+
+        new BukkitRunnable() {
+          @Override
+          public void run() {
+            if (revision != Portal.this.revision || !PortalNetwork.manager.contains(Portal.this)) {
+              return;
+            }
+            Portal.this.apply(shape);
+            PortalNetwork.manager.journal(Portal.this, PortalStore.Op.REVALIDATE);
+            PortalNetwork.manager.updated(Portal.this);
+          }
+        }.runTask(PortalNetwork.instance);
       }
+    }.runTaskAsynchronously(PortalNetwork.instance);
+  }
+
+  // Restore saved state without touching the world. The portal is indexed as it was saved but
+  // should be updated before it is dialled.
+  public void restore(boolean valid, int network, int address, @Nullable PortalGeometry geometry) {
+    if (valid && geometry != null && geometry.base().length > 2) {
+      int x = this.location.getBlockX();
+      int y = this.location.getBlockY();
+      int z = this.location.getBlockZ();
+
+      // Base runs from left to right followed by the address block
+      long[] base = geometry.base();
+      long leftKey = base[0];
+      long rightKey = base[base.length - 2];
+      long addressKey = base[base.length - 1];
+
+      this.network = network;
+      this.address = address;
+      this.left = new BlockVector(BlockIndex.keyX(leftKey) - x, 0, BlockIndex.keyZ(leftKey) - z);
+      this.right =
+          new BlockVector(BlockIndex.keyX(rightKey) - x, 0, BlockIndex.keyZ(rightKey) - z);
+      this.location.setDirection(
+          new Vector(x - BlockIndex.keyX(addressKey), 0, z - BlockIndex.keyZ(addressKey)));
+      this.valid = true;
+      this.geometry = geometry;
     }
+    PortalNetwork.manager.reindexPortal(this);
+  }
 
-    if (count != 3 || nonIdx == -1) {
-      this.setValid(false);
-      PortalNetwork.manager.reindexPortal(this);
+  // Apply a detected shape. Must be called on the main thread.
+  private void apply(@Nullable PortalShape shape) {
+    if (shape == null) {
+      this.setInvalid();
       return;
     }
 
-    // Determine address block. It should be opposite non_idx
-    Location addressBlock = blocks.get((nonIdx + 2) % 4);
-    this.address = WOOL_MAPPINGS.indexOf(addressBlock.getBlock().getType());
+    this.address = shape.address();
+    this.network = shape.network();
+    Location addressBlock =
+        new Location(
+            this.location.getWorld(),
+            shape.addressX(),
+            this.location.getBlockY(),
+            shape.addressZ());
     this.location.setDirection(this.location.toVector().subtract(addressBlock.toVector()));
 
-    // Net block is previous and next to non_idx
-    Location leftBlock = blocks.get(((nonIdx - 1) % 4 + 4) % 4);
-    Location rightBlock = blocks.get(((nonIdx + 1) % 4 + 4) % 4);
-    this.network =
-        (WOOL_MAPPINGS.indexOf(leftBlock.getBlock().getType()) << 4)
-            + WOOL_MAPPINGS.indexOf(rightBlock.getBlock().getType());
-
     // If address and network already exist pop out the address block
     Portal p = PortalNetwork.manager.find(this.network, this.address);
     if (p != null && p != this) {
@@ -181,33 +241,24 @@ public abstract class Portal {
       if (addressBlock.getWorld() != null) {
         addressBlock.getWorld().dropItemNaturally(addressBlock, new ItemStack(material));
       }
-      this.setValid(false);
-      PortalNetwork.manager.reindexPortal(this);
+      this.setInvalid();
       return;
     }
 
-    // Get Width of portal by counting obsidian blocks to a max of 10 each direction
-    Vector leftUnitVector = leftBlock.toVector().subtract(this.location.toVector()).normalize();
-    this.left = leftUnitVector.toBlockVector();
-    for (int i = 0; i < 10; i++) {
-      Vector testLeft = this.left.clone().add(leftUnitVector);
-      if (this.location.clone().add(testLeft).getBlock().getType() != Material.OBSIDIAN) {
-        break;
-      }
-      this.left = testLeft.toBlockVector();
-    }
-
-    Vector rightUnitVector = rightBlock.toVector().subtract(this.location.toVector()).normalize();
-    this.right = rightUnitVector.toBlockVector();
-    for (int i = 0; i < 10; i++) {
-      Vector testRight = this.right.clone().add(rightUnitVector);
-      if (this.location.clone().add(testRight).getBlock().getType() != Material.OBSIDIAN) {
-        break;
-      }
-      this.right = testRight.toBlockVector();
-    }
+    this.left = shape.left();
+    this.right = shape.right();
 
+    // Deactivate using the old geometry so we clean up what was drawn
     this.setValid(true);
+    this.geometry = shape.geometry();
+    PortalNetwork.manager.reindexPortal(this);
+  }
+
+  private void setInvalid() {
+    this.setValid(false);
+    this.geometry =
+        PortalGeometry.of(
+            this.location.getBlockX(), this.location.getBlockY(), this.location.getBlockZ());
     PortalNetwork.manager.reindexPortal(this);
   }
 
@@ -259,6 +310,8 @@ public abstract class Portal {
       }
 
       this.dialledPortal = null;
+      PortalNetwork.manager.setDialled(this, false);
+      PortalNetwork.manager.journal(this, PortalStore.Op.UNDIAL);
       this.deactivate();
       return;
     }
@@ -281,6 +334,8 @@ public abstract class Portal {
     }
 
     this.dialledPortal = portal;
+    PortalNetwork.manager.setDialled(this, true);
+    PortalNetwork.manager.journal(this, PortalStore.Op.DIAL);
     this.activate();
   }
 
@@ -313,248 +368,143 @@ public abstract class Portal {
     this.dial(null);
   }
 
-  // Return an iterator over the portal part of the portal
-  public @NotNull Iterator<BlockVector> getPortalIterator() {
-
-    final int maxWidth = this.getWidth();
-    final int maxHeight = this.getHeight();
+  // Data shown in the interior while active, or null if the interior is left alone
+  protected @Nullable BlockData getInteriorData(@NotNull World world) {
+    return null;
+  }
 
-    return new Iterator<>() {
-      int width = 1;
-      int height = 1;
-      BlockVector next;
+  // Return true if material is something we draw in the interior
+  protected boolean isInteriorMaterial(@NotNull Material material) {
+    return false;
+  }
 
-      private BlockVector getNext() throws NoSuchElementException {
-        if (!Portal.this.isValid()) {
-          throw new NoSuchElementException();
-        }
+  // Work out which frame and interior blocks differ from what the portal should show. We only
+  // ever replace air or blocks we drew ourselves.
+  protected @NotNull List<BlockChange> diff(@NotNull World world) {
+    boolean active = this.valid && this.dialledPortal != null;
+    List<BlockChange> changes = new ArrayList<>();
+
+    BlockData frameData =
+        active ? PortalBlocks.glass(this.dialledPortal.getAddress()) : PortalBlocks.AIR;
+    for (long key : this.geometry.frame()) {
+      Material type = getBlock(world, key).getType();
+      if (type != Material.AIR && !PortalBlocks.isGlass(type)) {
+        continue;
+      }
 
-        while (this.width < maxWidth - 1) {
-          if (this.height < maxHeight - 1) {
-            Location check =
-                Portal.this
-                    .location
-                    .clone()
-                    .add(Portal.this.left)
-                    .add(Portal.this.right.clone().normalize().multiply(this.width));
-
-            // If this location is blocked we continue
-            if (check.clone().add(new Vector(0, 1, 0).multiply(this.height)).getBlock().getType()
-                == Material.OBSIDIAN) {
-              break;
-            }
+      if (type != frameData.getMaterial()) {
+        changes.add(new BlockChange(key, frameData));
+      }
+    }
 
-            Location ret = check.clone().add(new Vector(0, 1, 0).multiply(this.height));
-
-            // Something blocking above us? We will reset next round
-            if (check
-                    .clone()
-                    .add(new Vector(0, 1, 0).multiply(this.height + 1))
-                    .getBlock()
-                    .getType()
-                == Material.OBSIDIAN) {
-              this.height = 1;
-              this.width++;
-            } else {
-              this.height++;
-            }
+    BlockData interiorData = active ? this.getInteriorData(world) : PortalBlocks.AIR;
+    if (interiorData == null) {
+      return changes;
+    }
 
-            return ret.toVector().toBlockVector();
-          }
-          this.width++;
-          this.height = 1;
-        }
-        throw new NoSuchElementException();
+    for (long key : this.geometry.interior()) {
+      Block block = getBlock(world, key);
+      Material type = block.getType();
+      if (type != Material.AIR && !this.isInteriorMaterial(type)) {
+        continue;
       }
 
-      @Override
-      public boolean hasNext() {
-        if (this.next == null) {
-          try {
-            this.next = this.getNext();
-          } catch (NoSuchElementException e) {
-            return false;
-          }
-        }
-        return true;
+      // Only orientable blocks can differ while being the same type
+      if (type == interiorData.getMaterial()
+          && (!(interiorData instanceof Orientable) || block.getBlockData().equals(interiorData))) {
+        continue;
       }
 
-      @Override
-      public BlockVector next() {
-        if (this.hasNext()) {
-          BlockVector ret = this.next;
-          this.next = null;
-          return ret;
-        }
-        throw new NoSuchElementException();
-      }
-    };
+      changes.add(new BlockChange(key, interiorData));
+    }
+    return changes;
   }
 
-  // Return an iterator over the portal base
-  public @NotNull Iterator<BlockVector> getPortalBaseIterator() {
-    final int maxWidth = this.getWidth();
-
-    return new Iterator<>() {
-      int width = 0;
-      BlockVector next;
-
-      private BlockVector getNext() throws NoSuchElementException {
-        if (!Portal.this.isValid()) {
-          // A non-valid portal just returns its own location
-          if (this.width == 0) {
-            this.width++;
-            return Portal.this.location.toVector().toBlockVector();
-          }
-          throw new NoSuchElementException();
-        }
-
-        if (this.width < maxWidth) {
-          Location ret =
-              Portal.this
-                  .location
-                  .clone()
-                  .add(Portal.this.left)
-                  .add(Portal.this.right.clone().normalize().multiply(this.width));
-          this.width++;
-          return ret.toVector().toBlockVector();
-        }
-
-        // Address block.
-        if (this.width == maxWidth) {
-          Location ret = Portal.this.location.clone().subtract(Portal.this.location.getDirection());
-          this.width++;
-          return ret.toVector().toBlockVector();
-        }
-
-        throw new NoSuchElementException();
-      }
-
-      @Override
-      public boolean hasNext() {
-        if (this.next == null) {
-          try {
-            this.next = this.getNext();
-          } catch (NoSuchElementException e) {
-            return false;
-          }
-        }
+  // Blocks players are shown while active when nothing is placed in the world
+  protected @NotNull List<BlockChange> view(@NotNull World world) {
+    List<BlockChange> view = new ArrayList<>();
+    if (!this.valid || this.dialledPortal == null) {
+      return view;
+    }
 
-        return true;
+    BlockData frameData = PortalBlocks.glass(this.dialledPortal.getAddress());
+    for (long key : this.geometry.frame()) {
+      if (getBlock(world, key).getType() == Material.AIR) {
+        view.add(new BlockChange(key, frameData));
       }
+    }
 
-      @Override
-      public BlockVector next() {
-        if (this.hasNext()) {
-          BlockVector ret = this.next;
-          this.next = null;
-          return ret;
-        }
+    BlockData interiorData = this.getInteriorData(world);
+    if (interiorData == null) {
+      return view;
+    }
 
-        throw new NoSuchElementException();
+    for (long key : this.geometry.interior()) {
+      if (getBlock(world, key).getType() == Material.AIR) {
+        view.add(new BlockChange(key, interiorData));
       }
-    };
+    }
+    return view;
   }
 
-  // Return an iterator over the portal frame
-  public @NotNull Iterator<BlockVector> getPortalFrameIterator() {
-    final int maxWidth = this.getWidth();
-    final int maxHeight = this.getHeight();
-
-    return new Iterator<>() {
-      int width = 0;
-      int height = 1;
-      BlockVector next;
+  // Draw or clear the frame and interior using the configured renderer
+  protected void render() {
+    if (this.location.getWorld() != null) {
+      PortalNetwork.renderer.render(this);
+    }
+  }
 
-      private BlockVector getNext() throws NoSuchElementException {
-        if (!Portal.this.isValid()) {
-          throw new NoSuchElementException();
-        }
+  // Return true once both ends of the connection have finished drawing
+  public boolean isReady() {
+    return this.dialledPortal != null
+        && !PortalNetwork.renderer.isPending(this)
+        && !PortalNetwork.renderer.isPending(this.dialledPortal);
+  }
 
-        while (this.width < maxWidth) {
-          while (this.height < maxHeight) {
-            Location check =
-                Portal.this
-                    .location
-                    .clone()
-                    .add(Portal.this.left)
-                    .add(Portal.this.right.clone().normalize().multiply(this.width));
-
-            // If this location is blocked we continue
-            if (check.clone().add(new Vector(0, 1, 0).multiply(this.height)).getBlock().getType()
-                == Material.OBSIDIAN) {
-              break;
-            }
+  protected void setBlock(@NotNull Block block, @NotNull BlockData data) {
+    block.setBlockData(data, false);
+  }
 
-            // If we are on either end of the portal, then every height is part of the frame unless
-            // blocked
-            if (this.width == 0 || this.width == maxWidth - 1) {
-              Location ret = check.clone().add(new Vector(0, 1, 0).multiply(this.height));
-              if (check
-                      .clone()
-                      .add(new Vector(0, 1, 0).multiply(this.height + 1))
-                      .getBlock()
-                      .getType()
-                  == Material.OBSIDIAN) {
-                this.height = 1;
-                this.width++;
-              } else {
-                this.height++;
-              }
-              return ret.toVector().toBlockVector();
-            }
+  // Return true if moving from one point to another passes through the interior. The interior is
+  // treated as a plane through the middle of the portal blocks so fast movers can't skip it.
+  public boolean isCrossedBy(
+      double fromX, double fromY, double fromZ, double toX, double toY, double toZ) {
+    if (!this.valid) {
+      return false;
+    }
 
-            // Max height is frame
-            if (this.height == maxHeight - 1) {
-              Location ret = check.clone().add(new Vector(0, 1, 0).multiply(this.height));
-              this.height = 1;
-              this.width++;
-              return ret.toVector().toBlockVector();
-            }
+    // Portal running along X faces Z and the reverse
+    boolean alongX = this.left.getZ() == 0;
+    double plane = (alongX ? this.location.getBlockZ() : this.location.getBlockX()) + 0.5;
+    double from = alongX ? fromZ : fromX;
+    double to = alongX ? toZ : toX;
+    if (from == plane || (from - plane) * (to - plane) > 0) {
+      return false;
+    }
 
-            // Something blocking above us? We don't draw frame
-            if (check
-                    .clone()
-                    .add(new Vector(0, 1, 0).multiply(this.height + 1))
-                    .getBlock()
-                    .getType()
-                == Material.OBSIDIAN) {
-              break;
-            }
+    double t = (plane - from) / (to - from);
+    int x = alongX ? (int) Math.floor(fromX + (toX - fromX) * t) : this.location.getBlockX();
+    int y = (int) Math.floor(fromY + (toY - fromY) * t);
+    int z = alongX ? this.location.getBlockZ() : (int) Math.floor(fromZ + (toZ - fromZ) * t);
 
-            // Else
-            this.height++;
-          }
-          this.width++;
-          this.height = 1;
-        }
-        throw new NoSuchElementException();
-      }
+    return this.geometry.bounds().contains(x, y, z, 0)
+        && this.geometry.isInterior(BlockIndex.key(x, y, z));
+  }
 
-      @Override
-      public boolean hasNext() {
-        if (this.next == null) {
-          try {
-            this.next = this.getNext();
-          } catch (NoSuchElementException e) {
-            return false;
-          }
-        }
+  public @NotNull PortalGeometry getGeometry() {
+    return this.geometry;
+  }
 
-        return true;
-      }
+  public @NotNull PortalBounds getBounds() {
+    return this.geometry.bounds();
+  }
 
-      @Override
-      public BlockVector next() {
-        if (this.hasNext()) {
-          BlockVector ret = this.next;
-          this.next = null;
-          return ret;
-        }
+  protected static @NotNull Block getBlock(@NotNull World world, long key) {
+    return world.getBlockAt(BlockIndex.keyX(key), BlockIndex.keyY(key), BlockIndex.keyZ(key));
+  }
 
-        throw new NoSuchElementException();
-      }
-    };
+  protected static long getKey(@NotNull Block block) {
+    return BlockIndex.key(block.getX(), block.getY(), block.getZ());
   }
 
   public void handlePlayerInteract(PlayerInteractEvent event) {
@@ -562,15 +512,7 @@ public abstract class Portal {
       return;
     }
     // If its not our base we are not interested
-    if (Streams.stream(this.getPortalBaseIterator())
-        .noneMatch(
-            (BlockVector blockVector) ->
-                event
-                    .getClickedBlock()
-                    .getLocation()
-                    .toVector()
-                    .toBlockVector()
-                    .equals(blockVector))) {
+    if (!this.geometry.isBase(getKey(event.getClickedBlock()))) {
       return;
     }
 
@@ -583,17 +525,16 @@ public abstract class Portal {
     // Player has right clicked portal so lets dial next address if any, else deactivate
     if (this.valid) {
       this.dialNext();
-      PortalNetwork.manager.save();
     }
   }
 
-  // Return new position and velocity of an entity to dialled portal
-  PositionVelocity calculatePosition(Entity entity) {
+  // Return new position and velocity of an entity moving on from a position before the portal
+  PositionVelocity calculatePosition(Entity entity, Location from, Vector movement) {
     if (this.getDialledPortal() == null) {
       return null;
     }
 
-    Location to = entity.getLocation().clone().add(entity.getVelocity());
+    Location to = from.clone().add(movement);
 
     // teleport to relative portal position
 
@@ -629,7 +570,7 @@ public abstract class Portal {
     destination.setYaw(entity.getLocation().getYaw() - yawDiff);
     destination.setPitch(entity.getLocation().getPitch());
 
-    Vector oldVelocity = entity.getVelocity();
+    Vector oldVelocity = movement;
     Vector newVelocity;
 
     // Check if destination is unblocked else we will flip the player around
@@ -656,12 +597,20 @@ public abstract class Portal {
     return new PositionVelocity(destination, newVelocity, yawDiff);
   }
 
-  public void handleVehicleMove(VehicleMoveEvent event) {
-    if (this.getDialledPortal() == null) {
-      return;
-    }
+  // Return true if the vehicle was teleported
+  public boolean handleVehicleMove(VehicleMoveEvent event) {
+    return this.teleportVehicle(
+        event.getVehicle(),
+        event.getFrom(),
+        event.getTo().toVector().subtract(event.getFrom().toVector()));
+  }
 
-    Entity entity = event.getVehicle();
+  // Send vehicle and its passengers through to the dialled portal
+  public boolean teleportVehicle(
+      @NotNull Entity entity, @NotNull Location from, @NotNull Vector movement) {
+    if (!this.isReady()) {
+      return false;
+    }
 
     // Dismount all passengers first.
     List<Entity> passengers = new ArrayList<>(entity.getPassengers());
@@ -669,25 +618,37 @@ public abstract class Portal {
       entity.removePassenger(passenger);
     }
 
-    entity.setVelocity(event.getTo().toVector().subtract(event.getFrom().toVector()));
-    PositionVelocity pv = this.calculatePosition(entity);
-
+    PositionVelocity pv = this.calculatePosition(entity, from, movement);
+    if (!entity.teleport(pv.location())) {
+      for (Entity passenger : passengers) {
+        entity.addPassenger(passenger);
+      }
+      return false;
+    }
     entity.setVelocity(pv.velocity());
-    entity.teleport(pv.location());
 
     // Rotate and Mount all passengers
     for (Entity passenger : passengers) {
       passenger.teleport(pv.location().clone().setDirection(pv.velocity().normalize()));
       entity.addPassenger(passenger);
     }
+    return true;
   }
 
-  public void handlePlayerMove(PlayerMoveEvent event) {
-    if (this.getDialledPortal() == null) {
-      return;
-    }
+  // Return true if the player was teleported
+  public boolean handlePlayerMove(PlayerMoveEvent event) {
+    return this.teleportPlayer(
+        event.getPlayer(),
+        event.getFrom(),
+        event.getTo().toVector().subtract(event.getFrom().toVector()));
+  }
 
-    Player player = event.getPlayer();
+  // Send player, and any vehicle they are riding, through to the dialled portal
+  public boolean teleportPlayer(
+      @NotNull Player player, @NotNull Location from, @NotNull Vector movement) {
+    if (!this.isReady()) {
+      return false;
+    }
 
     // If player is a passenger take care of the vehicle and other passengers
     boolean insideVehicle = player.isInsideVehicle() && player.getVehicle() != null;
@@ -701,15 +662,19 @@ public abstract class Portal {
       }
     }
 
-    player.setVelocity(event.getTo().toVector().subtract(event.getFrom().toVector()));
-    PositionVelocity pv = this.calculatePosition(player);
-
+    PositionVelocity pv = this.calculatePosition(player, from, movement);
+    if (!player.teleport(pv.location())) {
+      for (Entity passenger : passengers) {
+        vehicle.addPassenger(passenger);
+      }
+      return false;
+    }
     player.setVelocity(pv.velocity());
-    player.teleport(pv.location());
 
     if (insideVehicle) {
-      vehicle.teleport(pv.location());
-      vehicle.setVelocity(pv.velocity());
+      if (vehicle.teleport(pv.location())) {
+        vehicle.setVelocity(pv.velocity());
+      }
       new BukkitRunnable() {
 
         @Override
@@ -721,6 +686,22 @@ public abstract class Portal {
         }
       }.runTaskLater(PortalNetwork.instance, 1);
     }
+    return true;
+  }
+
+  // Send any other entity, such as an item or mob, through to the dialled portal
+  public boolean teleportEntity(
+      @NotNull Entity entity, @NotNull Location from, @NotNull Vector movement) {
+    if (!this.isReady()) {
+      return false;
+    }
+
+    PositionVelocity pv = this.calculatePosition(entity, from, movement);
+    if (!entity.teleport(pv.location())) {
+      return false;
+    }
+    entity.setVelocity(pv.velocity());
+    return true;
   }
 
   public @NotNull Integer getNetwork() {
@@ -743,64 +724,46 @@ public abstract class Portal {
 
   public void handleBlockBreak(BlockBreakEvent event) {
     // If it's the frame we cancel drops
-    if (Streams.stream(this.getPortalFrameIterator())
-        .anyMatch(
-            (BlockVector blockVector) ->
-                event.getBlock().getLocation().toVector().toBlockVector().equals(blockVector))) {
+    if (this.geometry.isFrame(getKey(event.getBlock()))) {
       event.setDropItems(false);
     }
 
     this.dial(null);
-
-    new BukkitRunnable() {
-      @Override
-      public void run() {
-        Portal.this.update();
-        PortalNetwork.manager.save();
-      }
-    }.runTaskLater(PortalNetwork.instance, 3);
+    PortalNetwork.manager.markDirty(this, REVALIDATE_DELAY);
   }
 
   public void handleBlockBurn() {
     this.dial(null);
-    new BukkitRunnable() {
-      @Override
-      public void run() {
-        Portal.this.update();
-        PortalNetwork.manager.save();
-      }
-    }.runTaskLater(PortalNetwork.instance, 3);
+    PortalNetwork.manager.markDirty(this, REVALIDATE_DELAY);
   }
 
   public void handleBlockExplode() {
     this.dial(null);
-    new BukkitRunnable() {
-      @Override
-      public void run() {
-        Portal.this.update();
-        PortalNetwork.manager.save();
-      }
-    }.runTaskLater(PortalNetwork.instance, 3);
+    PortalNetwork.manager.markDirty(this, REVALIDATE_DELAY);
   }
 
   public void handleBlockIgnite() {
     this.dial(null);
-    new BukkitRunnable() {
-      @Override
-      public void run() {
-        Portal.this.update();
-        PortalNetwork.manager.save();
-      }
-    }.runTaskLater(PortalNetwork.instance, 3);
+    PortalNetwork.manager.markDirty(this, REVALIDATE_DELAY);
   }
 
   public void handleBlockPlace() {
     this.dial(null);
-    this.update();
-    PortalNetwork.manager.save();
+    this.updateAsync();
   }
 
   // Remove portal cleanly
+  // Clear this end of a connection from the world without undialling the other end or saving
+  // the change, so the connection is restored when portals are next loaded
+  public void close() {
+    if (this.dialledPortal == null) {
+      return;
+    }
+
+    this.dialledPortal = null;
+    this.deactivate();
+  }
+
   public void remove() {
     this.dial(null);
     this.deactivate();
@@ -823,6 +786,7 @@ public abstract class Portal {
     return getClass().getName()
         + "("
         + new StringJoiner(", ")
+            .add("id=" + this.id)
             .add("location=" + this.location)
             .add("left=" + this.left)
             .add("right=" + this.right)
@@ -0,0 +1,63 @@
+/*
+ * PortalNetwork - Portals for Players
+ * Copyright (C) 2026 PortalNetwork Developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package au.com.grieve.portalnetwork.portals;
+
+import java.util.EnumSet;
+import java.util.Set;
+import org.bukkit.Axis;
+import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.Orientable;
+import org.jetbrains.annotations.NotNull;
+
+// Block data used to draw portals, built once when first used. Placing block data copies its
+// state so these are shared and must never be modified.
+final class PortalBlocks {
+  static final BlockData AIR = Material.AIR.createBlockData();
+  static final BlockData END_GATEWAY = Material.END_GATEWAY.createBlockData();
+
+  private static final BlockData NETHER_PORTAL_X = orient(Axis.X);
+  private static final BlockData NETHER_PORTAL_Z = orient(Axis.Z);
+
+  // Frame glass by address
+  private static final BlockData[] GLASS =
+      Portal.GLASS_MAPPINGS.stream().map(Material::createBlockData).toArray(BlockData[]::new);
+  private static final Set<Material> GLASS_TYPES = EnumSet.copyOf(Portal.GLASS_MAPPINGS);
+
+  private PortalBlocks() {}
+
+  private static @NotNull BlockData orient(@NotNull Axis axis) {
+    Orientable data = (Orientable) Material.NETHER_PORTAL.createBlockData();
+    data.setAxis(axis);
+    return data;
+  }
+
+  static @NotNull BlockData glass(int address) {
+    return GLASS[address];
+  }
+
+  static boolean isGlass(@NotNull Material material) {
+    return GLASS_TYPES.contains(material);
+  }
+
+  // Nether portal facing along a portal whose left side is left
+  static @NotNull BlockData netherPortal(@NotNull Portal portal) {
+    return portal.left.getX() == 0 ? NETHER_PORTAL_Z : NETHER_PORTAL_X;
+  }
+}
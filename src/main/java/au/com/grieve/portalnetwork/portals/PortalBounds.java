@@ -0,0 +1,36 @@
+/*
+ * PortalNetwork - Portals for Players
+ * Copyright (C) 2026 PortalNetwork Developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package au.com.grieve.portalnetwork.portals;
+
+// Inclusive block bounding box of a portal
+public record PortalBounds(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+  public static PortalBounds of(int x, int y, int z) {
+    return new PortalBounds(x, y, z, x, y, z);
+  }
+
+  // Return true if the block is inside the box grown by distance on all sides
+  public boolean contains(int x, int y, int z, int distance) {
+    return x >= this.minX - distance
+        && x <= this.maxX + distance
+        && y >= this.minY - distance
+        && y <= this.maxY + distance
+        && z >= this.minZ - distance
+        && z <= this.maxZ + distance;
+  }
+}
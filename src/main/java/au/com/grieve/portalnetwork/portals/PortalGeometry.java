@@ -0,0 +1,162 @@
+/*
+ * PortalNetwork - Portals for Players
+ * Copyright (C) 2026 PortalNetwork Developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package au.com.grieve.portalnetwork.portals;
+
+import au.com.grieve.portalnetwork.BlockIndex;
+import java.util.Arrays;
+import org.bukkit.Material;
+import org.bukkit.util.BlockVector;
+import org.jetbrains.annotations.NotNull;
+
+// Shape of a portal captured when it was last updated. Blocks are packed with BlockIndex.key()
+// and the arrays are shared so must not be modified.
+public record PortalGeometry(
+    long block,
+    @NotNull long[] frame,
+    @NotNull long[] interior,
+    @NotNull long[] base,
+    @NotNull PortalBounds bounds) {
+  private static final long[] EMPTY = new long[0];
+
+  // An invalid portal is just its portal block
+  public static @NotNull PortalGeometry of(int x, int y, int z) {
+    long block = BlockIndex.key(x, y, z);
+    return new PortalGeometry(block, EMPTY, EMPTY, new long[] {block}, PortalBounds.of(x, y, z));
+  }
+
+  // Walk the blocks around a valid portal to find its frame and interior
+  public static @NotNull PortalGeometry of(
+      @NotNull BlockReader reader,
+      int x,
+      int y,
+      int z,
+      @NotNull BlockVector left,
+      @NotNull BlockVector right,
+      int addressX,
+      int addressZ) {
+    int width = (int) left.distance(right) + 1;
+    int height = (int) Math.ceil(width / 2f) + 2;
+
+    // Portal runs from left to right
+    int originX = x + left.getBlockX();
+    int originZ = z + left.getBlockZ();
+    int stepX = Integer.signum(right.getBlockX());
+    int stepZ = Integer.signum(right.getBlockZ());
+
+    // Interior stops at the first obstruction and each column stops below an obstruction
+    long[] interior = new long[Math.max(0, (width - 2) * (height - 2))];
+    int interiorSize = 0;
+    columns:
+    for (int w = 1; w < width - 1; w++) {
+      int checkX = originX + stepX * w;
+      int checkZ = originZ + stepZ * w;
+      for (int h = 1; h < height - 1; h++) {
+        if (isObsidian(reader, checkX, y + h, checkZ)) {
+          break columns;
+        }
+
+        interior[interiorSize++] = BlockIndex.key(checkX, y + h, checkZ);
+
+        if (isObsidian(reader, checkX, y + h + 1, checkZ)) {
+          break;
+        }
+      }
+    }
+
+    // Frame is both ends and the top unless something is blocking
+    long[] frame = new long[2 * height + width];
+    int frameSize = 0;
+    for (int w = 0; w < width; w++) {
+      int checkX = originX + stepX * w;
+      int checkZ = originZ + stepZ * w;
+      for (int h = 1; h < height; h++) {
+        if (isObsidian(reader, checkX, y + h, checkZ)) {
+          break;
+        }
+
+        if (w == 0 || w == width - 1) {
+          frame[frameSize++] = BlockIndex.key(checkX, y + h, checkZ);
+          if (isObsidian(reader, checkX, y + h + 1, checkZ)) {
+            break;
+          }
+          continue;
+        }
+
+        if (h == height - 1) {
+          frame[frameSize++] = BlockIndex.key(checkX, y + h, checkZ);
+          break;
+        }
+
+        if (isObsidian(reader, checkX, y + h + 1, checkZ)) {
+          break;
+        }
+      }
+    }
+
+    // Base is the full width plus the address block
+    long[] base = new long[width + 1];
+    for (int w = 0; w < width; w++) {
+      base[w] = BlockIndex.key(originX + stepX * w, y, originZ + stepZ * w);
+    }
+    base[width] = BlockIndex.key(addressX, y, addressZ);
+
+    int rightX = x + right.getBlockX();
+    int rightZ = z + right.getBlockZ();
+    PortalBounds bounds =
+        new PortalBounds(
+            Math.min(Math.min(originX, rightX), addressX),
+            y,
+            Math.min(Math.min(originZ, rightZ), addressZ),
+            Math.max(Math.max(originX, rightX), addressX),
+            y + height - 1,
+            Math.max(Math.max(originZ, rightZ), addressZ));
+
+    return new PortalGeometry(
+        BlockIndex.key(x, y, z),
+        Arrays.copyOf(frame, frameSize),
+        Arrays.copyOf(interior, interiorSize),
+        base,
+        bounds);
+  }
+
+  private static boolean isObsidian(@NotNull BlockReader reader, int x, int y, int z) {
+    return reader.getType(x, y, z) == Material.OBSIDIAN;
+  }
+
+  private static boolean contains(@NotNull long[] keys, long key) {
+    for (long k : keys) {
+      if (k == key) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public boolean isFrame(long key) {
+    return contains(this.frame, key);
+  }
+
+  public boolean isInterior(long key) {
+    return contains(this.interior, key);
+  }
+
+  public boolean isBase(long key) {
+    return contains(this.base, key);
+  }
+}
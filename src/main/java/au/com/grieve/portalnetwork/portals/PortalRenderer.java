@@ -0,0 +1,42 @@
+/*
+ * PortalNetwork - Portals for Players
+ * Copyright (C) 2026 PortalNetwork Developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package au.com.grieve.portalnetwork.portals;
+
+import org.bukkit.Chunk;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+// Draws the frame and interior of portals
+public interface PortalRenderer {
+  // Bring what players see of portal in line with its state
+  void render(@NotNull Portal portal);
+
+  // Return true if portal has changes players can not see yet
+  boolean isPending(@NotNull Portal portal);
+
+  // Finish or drop outstanding work. Used when the plugin is shutting down.
+  void flush();
+
+  // Chunk has been sent to player
+  default void sendChunk(@NotNull Player player, @NotNull Chunk chunk) {}
+
+  default void addViewer(@NotNull Player player) {}
+
+  default void removeViewer(@NotNull Player player) {}
+}
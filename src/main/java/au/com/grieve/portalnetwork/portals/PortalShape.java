@@ -0,0 +1,101 @@
+/*
+ * PortalNetwork - Portals for Players
+ * Copyright (C) 2026 PortalNetwork Developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package au.com.grieve.portalnetwork.portals;
+
+import org.bukkit.Material;
+import org.bukkit.Tag;
+import org.bukkit.util.BlockVector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// Result of reading a portal's surroundings. Detection only reads blocks so can run off the main
+// thread when given a snapshot reader.
+public record PortalShape(
+    int network,
+    int address,
+    int addressX,
+    int addressZ,
+    @NotNull BlockVector left,
+    @NotNull BlockVector right,
+    @NotNull PortalGeometry geometry) {
+  // Maximum obsidian to scan in each direction
+  static final int MAX_SIDE = 10;
+
+  // Furthest block from the portal block detection may read
+  public static final int REACH = MAX_SIDE + 2;
+
+  // Neighbours of the portal block in order around it
+  private static final int[][] SIDES = {{1, 0}, {0, 1}, {-1, 0}, {0, -1}};
+
+  // Return the shape at x, y, z or null if the wool is not on exactly 3 sides
+  public static @Nullable PortalShape detect(@NotNull BlockReader reader, int x, int y, int z) {
+    // Check that wool only appears on 3 sides
+    int count = 0;
+    int nonIdx = -1;
+
+    for (int idx = 0; idx < SIDES.length; idx++) {
+      if (Tag.WOOL.isTagged(reader.getType(x + SIDES[idx][0], y, z + SIDES[idx][1]))) {
+        count += 1;
+      } else {
+        nonIdx = idx;
+      }
+    }
+
+    if (count != 3 || nonIdx == -1) {
+      return null;
+    }
+
+    // Determine address block. It should be opposite non_idx
+    int[] addressSide = SIDES[(nonIdx + 2) % 4];
+    int addressX = x + addressSide[0];
+    int addressZ = z + addressSide[1];
+    int address = Portal.WOOL_MAPPINGS.indexOf(reader.getType(addressX, y, addressZ));
+
+    // Net block is previous and next to non_idx
+    int[] leftSide = SIDES[((nonIdx - 1) % 4 + 4) % 4];
+    int[] rightSide = SIDES[((nonIdx + 1) % 4 + 4) % 4];
+    int network =
+        (Portal.WOOL_MAPPINGS.indexOf(reader.getType(x + leftSide[0], y, z + leftSide[1])) << 4)
+            + Portal.WOOL_MAPPINGS.indexOf(reader.getType(x + rightSide[0], y, z + rightSide[1]));
+
+    // Get Width of portal by counting obsidian blocks to a max of MAX_SIDE each direction
+    BlockVector left = extent(reader, x, y, z, leftSide);
+    BlockVector right = extent(reader, x, y, z, rightSide);
+
+    return new PortalShape(
+        network,
+        address,
+        addressX,
+        addressZ,
+        left,
+        right,
+        PortalGeometry.of(reader, x, y, z, left, right, addressX, addressZ));
+  }
+
+  private static @NotNull BlockVector extent(
+      @NotNull BlockReader reader, int x, int y, int z, @NotNull int[] side) {
+    int length = 1;
+    while (length <= MAX_SIDE
+        && reader.getType(x + side[0] * (length + 1), y, z + side[1] * (length + 1))
+            == Material.OBSIDIAN) {
+      length++;
+    }
+    return new BlockVector(side[0] * length, 0, side[1] * length);
+  }
+}
@@ -37,12 +37,12 @@ public class PortalTypes {
   public static List<String> TYPES = List.of("end", "nether", "hidden");
   private static List<ShapedRecipe> RECIPES;
 
-  public static @NotNull Portal createPortalAt(@NotNull String type, @NotNull Location location)
-      throws InvalidPortalException {
+  public static @NotNull Portal createPortalAt(
+      @NotNull String type, long id, @NotNull Location location) throws InvalidPortalException {
     return switch (type) {
-      case "end" -> new EndPortal(location);
-      case "nether" -> new NetherPortal(location);
-      case "hidden" -> new HiddenPortal(location);
+      case "end" -> new EndPortal(id, location);
+      case "nether" -> new NetherPortal(id, location);
+      case "hidden" -> new HiddenPortal(id, location);
       default -> throw new InvalidPortalException("No such portal type");
     };
   }
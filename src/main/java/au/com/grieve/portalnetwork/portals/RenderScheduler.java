@@ -0,0 +1,162 @@
+/*
+ * PortalNetwork - Portals for Players
+ * Copyright (C) 2026 PortalNetwork Developers
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package au.com.grieve.portalnetwork.portals;
+
+import au.com.grieve.portalnetwork.PortalNetwork;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+
+// Applies portal block changes to the world over as many ticks as needed to stay within a per tick
+// budget
+public class RenderScheduler implements PortalRenderer {
+  private final int blocksPerTick;
+  private final long nanosPerTick;
+
+  // Pending changes by portal in the order they were submitted
+  private final Map<Portal, Job> jobs = new LinkedHashMap<>();
+  private BukkitTask task;
+
+  // A time budget of zero or less means only the block budget applies
+  public RenderScheduler(int blocksPerTick, double millisPerTick) {
+    this.blocksPerTick = Math.max(1, blocksPerTick);
+    this.nanosPerTick = millisPerTick > 0 ? (long) (millisPerTick * 1_000_000) : Long.MAX_VALUE;
+  }
+
+  @Override
+  public void render(@NotNull Portal portal) {
+    World world = portal.location.getWorld();
+    if (world != null) {
+      this.submit(portal, world, portal.diff(world));
+    }
+  }
+
+  // Queue changes for portal. Pending changes to blocks the portal now covers are replaced while
+  // any left over from an older shape are kept so they still get cleaned up.
+  void submit(
+      @NotNull Portal portal, @NotNull World world, @NotNull Iterable<BlockChange> changes) {
+    Job job = this.jobs.get(portal);
+    if (job != null) {
+      for (long key : portal.getGeometry().frame()) {
+        job.changes().remove(key);
+      }
+      for (long key : portal.getGeometry().interior()) {
+        job.changes().remove(key);
+      }
+    } else {
+      job = new Job(world, new LinkedHashMap<>());
+    }
+
+    for (BlockChange change : changes) {
+      job.changes().put(change.key(), change.data());
+    }
+
+    if (job.changes().isEmpty()) {
+      this.jobs.remove(portal);
+      return;
+    }
+
+    this.jobs.put(portal, job);
+    this.start();
+  }
+
+  @Override
+  public boolean isPending(@NotNull Portal portal) {
+    return this.jobs.containsKey(portal);
+  }
+
+  // Apply everything that is left
+  @Override
+  public void flush() {
+    this.stop();
+    for (Map.Entry<Portal, Job> entry : this.jobs.entrySet()) {
+      Job job = entry.getValue();
+      if (Bukkit.getWorld(job.world().getUID()) == null) {
+        continue;
+      }
+
+      for (Map.Entry<Long, BlockData> change : job.changes().entrySet()) {
+        entry.getKey().setBlock(Portal.getBlock(job.world(), change.getKey()), change.getValue());
+      }
+    }
+    this.jobs.clear();
+  }
+
+  private void start() {
+    if (this.task != null) {
+      return;
+    }
+
+    this.task =
+        new BukkitRunnable() {
+          @Override
+          public void run() {
+            RenderScheduler.this.tick();
+          }
+        }.runTaskTimer(PortalNetwork.instance, 1, 1);
+  }
+
+  private void stop() {
+    if (this.task != null) {
+      this.task.cancel();
+      this.task = null;
+    }
+  }
+
+  private void tick() {
+    long start = System.nanoTime();
+    int budget = this.blocksPerTick;
+
+    Iterator<Map.Entry<Portal, Job>> jobs = this.jobs.entrySet().iterator();
+    while (jobs.hasNext() && budget > 0 && System.nanoTime() - start < this.nanosPerTick) {
+      Map.Entry<Portal, Job> entry = jobs.next();
+      Job job = entry.getValue();
+
+      // World has gone away so there is nothing left to draw on
+      if (Bukkit.getWorld(job.world().getUID()) == null) {
+        jobs.remove();
+        continue;
+      }
+
+      Iterator<Map.Entry<Long, BlockData>> changes = job.changes().entrySet().iterator();
+      while (changes.hasNext() && budget > 0 && System.nanoTime() - start < this.nanosPerTick) {
+        Map.Entry<Long, BlockData> change = changes.next();
+        changes.remove();
+        entry.getKey().setBlock(Portal.getBlock(job.world(), change.getKey()), change.getValue());
+        budget--;
+      }
+
+      if (job.changes().isEmpty()) {
+        jobs.remove();
+      }
+    }
+
+    if (this.jobs.isEmpty()) {
+      this.stop();
+    }
+  }
+
+  private record Job(@NotNull World world, @NotNull Map<Long, BlockData> changes) {}
+}